@@ -0,0 +1,67 @@
+package com.subscription.core.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.subscription.core.entity.BusinessEvent;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * CBOR codec: compact binary JSON-compatible encoding. Field names are still written, but
+ * numbers, byte strings and timestamps are binary (dates as epoch numbers rather than ISO
+ * strings), which shrinks payloads and is cheaper to produce than text.
+ *
+ * Payloads are stored in payload_bytes. The envelope is a definite-length CBOR map: its header
+ * and the envelope fields are written with the generator, and the stored payload, being a
+ * complete CBOR data item, is appended as the value of the last key without decoding it.
+ */
+@Component
+public class CborEventCodec implements EventCodec {
+
+    public static final String CONTENT_TYPE = "application/cbor";
+
+    /** CBOR initial byte of a map with 6 key/value pairs (major type 5, length 6). */
+    private static final int ENVELOPE_MAP_HEADER = 0xA6;
+    private static final int ENVELOPE_OVERHEAD_BYTES = 128;
+
+    private final CBORMapper cborMapper = CBORMapper.builder().findAndAddModules().build();
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public void writePayload(BusinessEvent target, Object event) throws IOException {
+        target.setPayloadBytes(cborMapper.writeValueAsBytes(event));
+        target.setContentType(contentType());
+    }
+
+    @Override
+    public byte[] writeEnvelope(BusinessEvent event, String eventType) {
+        byte[] payload = event.getPayloadBytes();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length + ENVELOPE_OVERHEAD_BYTES);
+        out.write(ENVELOPE_MAP_HEADER);
+        // Keys and values are written as a sequence of root-level items following the map header
+        try (JsonGenerator generator = cborMapper.getFactory().createGenerator(out)) {
+            generator.writeString("eventId");
+            generator.writeString(event.getEventId().toString());
+            generator.writeString("eventType");
+            generator.writeString(eventType);
+            generator.writeString("aggregateType");
+            generator.writeString(event.getAggregateType());
+            generator.writeString("aggregateId");
+            generator.writeString(event.getAggregateId());
+            generator.writeString("timestamp");
+            generator.writeObject(event.getCreatedAt());
+            generator.writeString("payload");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write envelope of event " + event.getEventId(), e);
+        }
+        out.writeBytes(payload);
+        return out.toByteArray();
+    }
+}
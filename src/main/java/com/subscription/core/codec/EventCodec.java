@@ -0,0 +1,39 @@
+package com.subscription.core.codec;
+
+import com.subscription.core.entity.BusinessEvent;
+
+import java.io.IOException;
+
+/**
+ * Encoding of outbox events, used both for the payload stored in business_events and for the
+ * Kafka value written by the relay. Each stored event records the content type it was encoded
+ * with, so the relay picks the matching codec even after the publishing codec was switched,
+ * and the content type travels to consumers in the contentType record header.
+ */
+public interface EventCodec {
+
+    /**
+     * @return MIME type of the encoding, e.g. application/json
+     */
+    String contentType();
+
+    /**
+     * Encodes an event payload into the outbox row (payload text for textual formats,
+     * payload_bytes for binary ones) and sets its content type.
+     *
+     * @param target The outbox row being written
+     * @param event The event object
+     * @throws IOException If the event cannot be encoded
+     */
+    void writePayload(BusinessEvent target, Object event) throws IOException;
+
+    /**
+     * Writes the Kafka value of an outbox event: the EventEnvelope with the stored payload
+     * embedded as-is, without decoding it.
+     *
+     * @param event The outbox event
+     * @param eventType The event type as published on the envelope
+     * @return The encoded envelope
+     */
+    byte[] writeEnvelope(BusinessEvent event, String eventType);
+}
@@ -0,0 +1,47 @@
+package com.subscription.core.codec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the available {@link EventCodec}s by content type.
+ * New events are encoded with the codec selected by outbox.codec (a content type); stored
+ * events are relayed with the codec of their own content type.
+ */
+@Component
+public class EventCodecs {
+
+    private final Map<String, EventCodec> codecs;
+    private final EventCodec publishingCodec;
+
+    public EventCodecs(List<EventCodec> codecs, @Value("${outbox.codec:application/json}") String publishingContentType) {
+        this.codecs = codecs.stream().collect(Collectors.toMap(EventCodec::contentType, Function.identity()));
+        this.publishingCodec = forContentType(publishingContentType);
+    }
+
+    /**
+     * @return The codec new outbox events are encoded with
+     */
+    public EventCodec publishing() {
+        return publishingCodec;
+    }
+
+    /**
+     * @param contentType Content type of a stored event
+     * @return The matching codec
+     * @throws IllegalArgumentException If no codec handles the content type
+     */
+    public EventCodec forContentType(String contentType) {
+        EventCodec codec = codecs.get(contentType);
+        if (Objects.isNull(codec)) {
+            throw new IllegalArgumentException("No event codec for content type " + contentType);
+        }
+        return codec;
+    }
+}
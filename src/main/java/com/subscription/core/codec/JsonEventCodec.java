@@ -0,0 +1,59 @@
+package com.subscription.core.codec;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.subscription.core.entity.BusinessEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * JSON codec. Payloads are stored as TEXT with the application ObjectMapper; envelopes are
+ * written around the stored payload as a raw value, with envelope fields in the same mapper
+ * configuration as the JsonSerializer, so consumers see the same envelope as before.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonEventCodec implements EventCodec {
+
+    private static final int ENVELOPE_OVERHEAD_BYTES = 256;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper envelopeMapper = JacksonUtils.enhancedObjectMapper();
+
+    @Override
+    public String contentType() {
+        return MimeTypeUtils.APPLICATION_JSON_VALUE;
+    }
+
+    @Override
+    public void writePayload(BusinessEvent target, Object event) throws IOException {
+        target.setPayload(objectMapper.writeValueAsString(event));
+        target.setContentType(contentType());
+    }
+
+    @Override
+    public byte[] writeEnvelope(BusinessEvent event, String eventType) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(event.getPayload().length() + ENVELOPE_OVERHEAD_BYTES);
+        try (JsonGenerator generator = envelopeMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("eventId", event.getEventId().toString());
+            generator.writeStringField("eventType", eventType);
+            generator.writeStringField("aggregateType", event.getAggregateType());
+            generator.writeStringField("aggregateId", event.getAggregateId());
+            generator.writeObjectField("timestamp", event.getCreatedAt());
+            generator.writeFieldName("payload");
+            generator.writeRawValue(event.getPayload());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write envelope of event " + event.getEventId(), e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,87 @@
+package com.subscription.core.controller;
+
+import com.subscription.core.dto.DeliveryCalendarEntryDTO;
+import com.subscription.core.dto.OrderForecastResponseDTO;
+import com.subscription.core.dto.OrderResponseDTO;
+import com.subscription.core.service.DeliveryCalendarService;
+import com.subscription.core.service.OrderForecastService;
+import com.subscription.core.service.OrderLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Admin controller for order run operations.
+ */
+@RestController
+@RequestMapping("/api/admin/orders")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminOrderController {
+
+    private final OrderForecastService orderForecastService;
+    private final DeliveryCalendarService deliveryCalendarService;
+    private final OrderLedgerService orderLedgerService;
+
+    /**
+     * Forecasts the orders that will be created for a delivery day, without creating them.
+     *
+     * @param date Delivery day (ISO yyyy-MM-dd), defaults to tomorrow
+     * @return Response containing order counts and amounts per zone/slot and per product
+     */
+    @GetMapping("/forecast")
+    public ResponseEntity<OrderForecastResponseDTO> forecast(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate targetDate = Objects.isNull(date) ? LocalDate.now().plusDays(1) : date;
+        log.info("[f:forecast] Processing order forecast request for {}", targetDate);
+        return ResponseEntity.ok(orderForecastService.forecast(targetDate));
+    }
+
+    /**
+     * Lists the deliveries scheduled on a day from the delivery calendar.
+     *
+     * @param date Delivery day (ISO yyyy-MM-dd)
+     * @param slotId Optional slot filter
+     * @return Response containing the scheduled deliveries ordered by slot
+     */
+    @GetMapping("/deliveries")
+    public ResponseEntity<List<DeliveryCalendarEntryDTO>> getDeliveries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String slotId) {
+        log.info("[f:getDeliveries] Fetching deliveries for {}, slot: {}", date, slotId);
+        return ResponseEntity.ok(deliveryCalendarService.findDeliveries(date, slotId));
+    }
+
+    /**
+     * Gets the orders created for a slot on a delivery day.
+     *
+     * @param slotId The slot ID
+     * @param date Delivery day (ISO yyyy-MM-dd)
+     * @return Response containing the slot's orders
+     */
+    @GetMapping("/slot/{slotId}")
+    public ResponseEntity<List<OrderResponseDTO>> getSlotOrders(
+            @PathVariable String slotId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        log.info("[f:getSlotOrders] Fetching orders for slot {} on {}", slotId, date);
+        return ResponseEntity.ok(orderLedgerService.getSlotOrders(slotId, date));
+    }
+
+    /**
+     * Gets all orders of a user.
+     *
+     * @param userId The user ID
+     * @return Response containing the user's orders, newest delivery first
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<OrderResponseDTO>> getUserOrders(@PathVariable String userId) {
+        log.info("[f:getUserOrders] Fetching orders for user {}", userId);
+        return ResponseEntity.ok(orderLedgerService.getUserOrders(userId));
+    }
+}
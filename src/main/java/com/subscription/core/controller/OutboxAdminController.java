@@ -0,0 +1,88 @@
+package com.subscription.core.controller;
+
+import com.subscription.core.dto.OutboxEventDTO;
+import com.subscription.core.dto.OutboxReplayRequestDTO;
+import com.subscription.core.dto.OutboxReplayStatusDTO;
+import com.subscription.core.service.OutboxAdminService;
+import com.subscription.core.service.OutboxReplayService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Admin controller for the transactional outbox.
+ */
+@RestController
+@RequestMapping("/api/admin/outbox")
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxAdminController {
+
+    private final OutboxAdminService outboxAdminService;
+    private final OutboxReplayService outboxReplayService;
+
+    /**
+     * Lists dead-lettered events.
+     *
+     * @param limit Maximum number of events, defaults to 100
+     * @return Response containing the dead-lettered events, most recent first
+     */
+    @GetMapping("/dead-letters")
+    public ResponseEntity<List<OutboxEventDTO>> getDeadLetters(@RequestParam(defaultValue = "100") int limit) {
+        log.info("[f:getDeadLetters] Fetching up to {} dead-lettered events", limit);
+        return ResponseEntity.ok(outboxAdminService.getDeadLetters(limit));
+    }
+
+    /**
+     * Requeues dead-lettered events with a fresh attempt budget.
+     *
+     * @param eventIds Events to requeue; all dead-lettered events when omitted or empty
+     * @return Response containing success message
+     */
+    @PostMapping("/dead-letters/requeue")
+    public ResponseEntity<String> requeueDeadLetters(@RequestBody(required = false) List<UUID> eventIds) {
+        log.info("[f:requeueDeadLetters] Processing dead-letter requeue request: {}", eventIds);
+        return ResponseEntity.ok(outboxAdminService.requeueDeadLetters(Objects.isNull(eventIds) ? List.of() : eventIds));
+    }
+
+    /**
+     * Starts replaying published events to Kafka as a background job.
+     *
+     * @param request Creation time range, optionally narrowed to an aggregate type and aggregate IDs
+     * @return Response containing the queued job; poll its progress with GET /replay/{jobId}
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<OutboxReplayStatusDTO> startReplay(@Valid @RequestBody OutboxReplayRequestDTO request) {
+        log.info("[f:startReplay] Processing outbox replay request: {}", request);
+        return ResponseEntity.ok(outboxReplayService.startReplay(request));
+    }
+
+    /**
+     * Gets the progress of a replay job.
+     *
+     * @param jobId The replay job ID
+     * @return Response containing the job status and counts
+     */
+    @GetMapping("/replay/{jobId}")
+    public ResponseEntity<OutboxReplayStatusDTO> getReplay(@PathVariable String jobId) {
+        return ResponseEntity.ok(outboxReplayService.getReplay(jobId));
+    }
+
+    /**
+     * Cancels a replay job after its current batch.
+     *
+     * @param jobId The replay job ID
+     * @return Response containing the job status
+     */
+    @PostMapping("/replay/{jobId}/cancel")
+    public ResponseEntity<OutboxReplayStatusDTO> cancelReplay(@PathVariable String jobId) {
+        log.info("[f:cancelReplay] Processing replay cancel request: {}", jobId);
+        return ResponseEntity.ok(outboxReplayService.cancelReplay(jobId));
+    }
+}
@@ -0,0 +1,24 @@
+package com.subscription.core.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Response DTO for one scheduled delivery of a subscription.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class DeliveryCalendarEntryDTO {
+    String subscriptionId;
+    String slotId;
+    ZonedDateTime deliveryDate;
+}
@@ -0,0 +1,29 @@
+package com.subscription.core.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Result of processing one keyset chunk of due subscriptions.
+ * The last key is the cursor for the next chunk. orderCount can exceed processedCount when
+ * catch-up creates several orders for one subscription.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderChunkResultDTO {
+    int fetchedCount;
+    int processedCount;
+    int errorCount;
+    int orderCount;
+    ZonedDateTime lastDeliveryDate;
+    String lastSubscriptionId;
+}
@@ -0,0 +1,28 @@
+package com.subscription.core.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response DTO for the order-volume forecast of a delivery day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderForecastResponseDTO {
+    LocalDate targetDate;
+    long totalOrders;
+    BigDecimal totalAmount;
+    List<SlotOrderForecastDTO> slots;
+    List<ProductOrderForecastDTO> products;
+}
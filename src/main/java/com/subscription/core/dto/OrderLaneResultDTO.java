@@ -0,0 +1,32 @@
+package com.subscription.core.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Aggregated counts of one order creation lane (or of a whole run).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderLaneResultDTO {
+    long fetchedCount;
+    long processedCount;
+    long errorCount;
+    int chunkCount;
+
+    public OrderLaneResultDTO add(OrderLaneResultDTO other) {
+        return OrderLaneResultDTO.builder()
+                .fetchedCount(fetchedCount + other.getFetchedCount())
+                .processedCount(processedCount + other.getProcessedCount())
+                .errorCount(errorCount + other.getErrorCount())
+                .chunkCount(chunkCount + other.getChunkCount())
+                .build();
+    }
+}
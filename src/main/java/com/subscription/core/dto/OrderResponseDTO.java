@@ -0,0 +1,32 @@
+package com.subscription.core.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+/**
+ * Response DTO for an order from the orders ledger.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderResponseDTO {
+    String orderId;
+    String subscriptionId;
+    String subscriptionIds;
+    String userId;
+    String slotId;
+    String deliveryAddressId;
+    String productIds;
+    BigDecimal totalAmount;
+    ZonedDateTime deliveryDate;
+    ZonedDateTime createdAt;
+}
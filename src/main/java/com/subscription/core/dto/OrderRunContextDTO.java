@@ -0,0 +1,32 @@
+package com.subscription.core.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * Parameters of one order run shared by all of its chunks.
+ * startedAt is the original start of the run, also when the run is resumed after a restart.
+ * A run without runId is not tracked in the run ledger (rolling slot runs); its chunks do not
+ * record partition watermarks. slotId restricts the run to one slot when set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderRunContextDTO {
+    String runId;
+    LocalDate runDate;
+    ZonedDateTime startedAt;
+    ZonedDateTime cutoff;
+    int partitionCount;
+    int chunkSize;
+    String slotId;
+}
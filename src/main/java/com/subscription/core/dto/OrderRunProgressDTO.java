@@ -0,0 +1,36 @@
+package com.subscription.core.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * Live progress of the order run on this instance, plus fleet-wide partition progress.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderRunProgressDTO {
+    boolean running;
+    String runId;
+    LocalDate runDate;
+    ZonedDateTime startedAt;
+    long elapsedSeconds;
+    long processedCount;
+    long orderCount;
+    long errorCount;
+    long chunkCount;
+    double ordersPerSecond;
+    long remainingDue;
+    int partitionsTotal;
+    int partitionsCompleted;
+    int partitionsFailed;
+}
@@ -0,0 +1,32 @@
+package com.subscription.core.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Response DTO for an outbox event, including its delivery attempts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OutboxEventDTO {
+    UUID eventId;
+    String eventType;
+    String aggregateType;
+    String aggregateId;
+    Instant createdAt;
+    Instant publishedAt;
+    int attemptCount;
+    Instant nextAttemptAt;
+    String lastError;
+    Instant deadLetteredAt;
+}
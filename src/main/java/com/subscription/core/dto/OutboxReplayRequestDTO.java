@@ -0,0 +1,30 @@
+package com.subscription.core.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Request DTO for replaying published outbox events to Kafka.
+ * Events created in [from, to) are replayed, optionally restricted to an aggregate type and
+ * a set of aggregate IDs.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OutboxReplayRequestDTO {
+    String aggregateType;
+    List<String> aggregateIds;
+    @NotNull
+    Instant from;
+    Instant to;
+}
@@ -0,0 +1,36 @@
+package com.subscription.core.dto;
+
+import com.subscription.core.enums.OutboxReplayStatus;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+/**
+ * Response DTO with the progress of an outbox replay job.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OutboxReplayStatusDTO {
+    String jobId;
+    OutboxReplayStatus status;
+    String aggregateType;
+    int aggregateIdCount;
+    Instant from;
+    Instant to;
+    long readCount;
+    long republishedCount;
+    long failedCount;
+    Instant lastCreatedAt;
+    double eventsPerSecond;
+    Instant startedAt;
+    Instant finishedAt;
+    String error;
+}
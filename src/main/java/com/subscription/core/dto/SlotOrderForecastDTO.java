@@ -0,0 +1,27 @@
+package com.subscription.core.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+
+/**
+ * Forecast order volume of one zone/slot.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SlotOrderForecastDTO {
+    String zoneId;
+    String slotId;
+    LocalTime startTime;
+    long orderCount;
+    BigDecimal totalAmount;
+}
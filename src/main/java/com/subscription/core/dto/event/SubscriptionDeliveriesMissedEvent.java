@@ -0,0 +1,22 @@
+package com.subscription.core.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionDeliveriesMissedEvent {
+    private String subscriptionId;
+    private String userId;
+    private String slotId;
+    private List<ZonedDateTime> missedDeliveryDates;
+    private ZonedDateTime nextDeliveryDate;
+    private ZonedDateTime detectedAt;
+}
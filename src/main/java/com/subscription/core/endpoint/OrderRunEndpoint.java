@@ -0,0 +1,46 @@
+package com.subscription.core.endpoint;
+
+import com.subscription.core.dto.OrderRunContextDTO;
+import com.subscription.core.dto.OrderRunProgressDTO;
+import com.subscription.core.entity.OrderRunPartitionLease;
+import com.subscription.core.enums.PartitionLeaseStatus;
+import com.subscription.core.repository.OrderRunPartitionLeaseRepository;
+import com.subscription.core.service.OrderRunMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Actuator endpoint (/actuator/orderrun) reporting live progress of the order run: counters of
+ * this instance plus partition progress of the whole fleet from the lease table.
+ */
+@Component
+@Endpoint(id = "orderrun")
+@RequiredArgsConstructor
+public class OrderRunEndpoint {
+
+    private final OrderRunMetrics orderRunMetrics;
+    private final OrderRunPartitionLeaseRepository leaseRepository;
+
+    @ReadOperation
+    public OrderRunProgressDTO progress() {
+        OrderRunProgressDTO progress = orderRunMetrics.snapshot();
+        OrderRunContextDTO run = orderRunMetrics.getCurrentRun();
+
+        if (Objects.nonNull(run)) {
+            List<OrderRunPartitionLease> leases = leaseRepository.findByRunDateOrderByPartitionIndexAsc(run.getRunDate());
+            progress.setPartitionsTotal(leases.size());
+            progress.setPartitionsCompleted((int) leases.stream()
+                    .filter(lease -> lease.getStatus() == PartitionLeaseStatus.COMPLETED)
+                    .count());
+            progress.setPartitionsFailed((int) leases.stream()
+                    .filter(lease -> lease.getStatus() == PartitionLeaseStatus.FAILED)
+                    .count());
+        }
+        return progress;
+    }
+}
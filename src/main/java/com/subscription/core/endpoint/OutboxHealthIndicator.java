@@ -0,0 +1,56 @@
+package com.subscription.core.endpoint;
+
+import com.subscription.core.service.OutboxMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Health of the outbox relay (/actuator/health/outbox), from the sample kept by {@link OutboxMetrics}.
+ * Reports DEGRADED when the oldest live unpublished event is older than
+ * outbox.health.degraded-lag-seconds, or when the sample itself is stale, so a stalled relay is
+ * flagged before consumers notice. DEGRADED is ordered between DOWN and UP and mapped to HTTP
+ * 200 in management.endpoint.health.status, so it alerts without taking the instance out of
+ * rotation.
+ */
+@Component("outbox")
+@RequiredArgsConstructor
+public class OutboxHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Outbox relay is lagging");
+
+    private final OutboxMetrics outboxMetrics;
+
+    @Value("${outbox.health.degraded-lag-seconds:60}")
+    private long degradedLagSeconds;
+
+    @Value("${outbox.health.stale-sample-seconds:60}")
+    private long staleSampleSeconds;
+
+    @Override
+    public Health health() {
+        OutboxMetrics.OutboxSample sample = outboxMetrics.getLastSample();
+        if (Objects.isNull(sample)) {
+            return Health.unknown().withDetail("reason", "Outbox not sampled yet").build();
+        }
+
+        long sampleAgeSeconds = Duration.between(sample.sampledAt(), Instant.now()).toSeconds();
+        boolean lagging = sample.oldestAgeSeconds() > degradedLagSeconds;
+        boolean stale = sampleAgeSeconds > staleSampleSeconds;
+
+        return Health.status(lagging || stale ? DEGRADED : Status.UP)
+                .withDetail("unpublished", sample.unpublished())
+                .withDetail("oldestUnpublishedAgeSeconds", sample.oldestAgeSeconds())
+                .withDetail("degradedLagSeconds", degradedLagSeconds)
+                .withDetail("sampledAt", sample.sampledAt())
+                .withDetail("stale", stale)
+                .build();
+    }
+}
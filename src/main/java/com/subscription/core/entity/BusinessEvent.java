@@ -8,6 +8,12 @@ import jakarta.persistence.*;
 import java.time.Instant;
 import java.util.UUID;
 
+/**
+ * An outbox event. The table is partitioned by created_at and its primary key is
+ * (event_id, created_at); the entity maps event_id alone, so it is only ever persisted new.
+ * Updates go through BusinessEventRepository's bulk statements, which filter on created_at to
+ * reach a single partition, never through merge, which would probe every partition.
+ */
 @Entity
 @Table(name = "business_events")
 @Data
@@ -29,20 +35,43 @@ public class BusinessEvent {
     @Column(name = "aggregate_id", nullable = false, length = 100)
     private String aggregateId;
 
-    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    @Column(name = "payload", columnDefinition = "TEXT")
     private String payload;
 
+    @Column(name = "payload_bytes")
+    private byte[] payloadBytes;
+
+    @Column(name = "content_type", nullable = false, length = 50)
+    private String contentType;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
     @Column(name = "published_at")
     private Instant publishedAt;
 
-    public BusinessEvent(String eventType, String aggregateType, String aggregateId, String payload) {
+    @Column(name = "attempt_count", nullable = false)
+    private int attemptCount;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "dead_lettered_at")
+    private Instant deadLetteredAt;
+
+    @Column(name = "superseded_by")
+    private UUID supersededBy;
+
+    /**
+     * Creates an unpublished event; the payload and content type are set by an EventCodec.
+     */
+    public BusinessEvent(String eventType, String aggregateType, String aggregateId) {
         this.eventType = eventType;
         this.aggregateType = aggregateType;
         this.aggregateId = aggregateId;
-        this.payload = payload;
         this.createdAt = Instant.now();
         this.publishedAt = null;
     }
@@ -0,0 +1,44 @@
+package com.subscription.core.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+import jakarta.persistence.*;
+import java.time.ZonedDateTime;
+
+/**
+ * One upcoming delivery occurrence of an active subscription.
+ * Maintained by DeliveryCalendarService; holds the next delivery-calendar.horizon occurrences
+ * of every active subscription.
+ */
+@Entity
+@Table(name = "delivery_calendar")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class DeliveryCalendarEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "calendar_id", length = 64)
+    String calendarId;
+
+    @Column(name = "subscription_id", nullable = false, length = 64)
+    String subscriptionId;
+
+    @Column(name = "slot_id", nullable = false, columnDefinition = "varchar(255)")
+    String slotId;
+
+    @Column(name = "delivery_date", nullable = false, columnDefinition = "TIMESTAMP")
+    ZonedDateTime deliveryDate;
+}
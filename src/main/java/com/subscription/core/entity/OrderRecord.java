@@ -0,0 +1,62 @@
+package com.subscription.core.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+/**
+ * Order created by the order run, kept in the orders ledger (partitioned by delivery_date).
+ * Rows are written through OrderRecordRepository.insertIfAbsent in the same transaction as the
+ * OrderCreated outbox event.
+ */
+@Entity
+@Table(name = "orders")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderRecord {
+
+    @Id
+    @Column(name = "order_id", length = 64)
+    String orderId;
+
+    @Column(name = "subscription_id", nullable = false, length = 64)
+    String subscriptionId;
+
+    @Column(name = "subscription_ids", columnDefinition = "TEXT")
+    String subscriptionIds;
+
+    @Column(name = "user_id", nullable = false, columnDefinition = "varchar(255)")
+    String userId;
+
+    @Column(name = "slot_id", nullable = false, columnDefinition = "varchar(255)")
+    String slotId;
+
+    @Column(name = "delivery_address_id", columnDefinition = "varchar(255)")
+    String deliveryAddressId;
+
+    @Column(name = "product_ids", columnDefinition = "TEXT")
+    String productIds;
+
+    @Column(name = "total_amount", nullable = false, columnDefinition = "decimal(20,4)")
+    BigDecimal totalAmount;
+
+    @Column(name = "delivery_date", nullable = false, columnDefinition = "TIMESTAMP")
+    ZonedDateTime deliveryDate;
+
+    @Column(name = "created_at", nullable = false, columnDefinition = "TIMESTAMP")
+    ZonedDateTime createdAt;
+}
@@ -0,0 +1,53 @@
+package com.subscription.core.entity;
+
+import com.subscription.core.enums.OrderRunStatus;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * Ledger entry of one nightly order run.
+ */
+@Entity
+@Table(name = "order_runs")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderRun {
+
+    @Id
+    @Column(name = "run_id", length = 64)
+    String runId;
+
+    @Column(name = "run_date", nullable = false)
+    LocalDate runDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    OrderRunStatus status;
+
+    @Column(name = "started_at", nullable = false, columnDefinition = "TIMESTAMP")
+    ZonedDateTime startedAt;
+
+    @Column(name = "completed_at", columnDefinition = "TIMESTAMP")
+    ZonedDateTime completedAt;
+
+    @Column(name = "processed_count", nullable = false)
+    Long processedCount;
+
+    @Column(name = "error_count", nullable = false)
+    Long errorCount;
+}
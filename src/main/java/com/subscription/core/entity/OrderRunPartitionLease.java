@@ -0,0 +1,71 @@
+package com.subscription.core.entity;
+
+import com.subscription.core.enums.PartitionLeaseStatus;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * Lease on one hash partition of a nightly order run, with the keyset watermark of the
+ * last committed chunk of that partition.
+ * Rows are created and claimed through native queries in OrderRunPartitionLeaseRepository.
+ */
+@Entity
+@Table(name = "order_run_partition_leases")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderRunPartitionLease {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "lease_id", length = 64)
+    String leaseId;
+
+    @Column(name = "run_id", length = 64)
+    String runId;
+
+    @Column(name = "run_date", nullable = false)
+    LocalDate runDate;
+
+    @Column(name = "partition_index", nullable = false)
+    Integer partitionIndex;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    PartitionLeaseStatus status;
+
+    @Column(name = "owner_id", columnDefinition = "varchar(255)")
+    String ownerId;
+
+    @Column(name = "lease_expires_at", columnDefinition = "TIMESTAMP")
+    ZonedDateTime leaseExpiresAt;
+
+    @Column(name = "completed_at", columnDefinition = "TIMESTAMP")
+    ZonedDateTime completedAt;
+
+    @Column(name = "last_delivery_date", columnDefinition = "TIMESTAMP")
+    ZonedDateTime lastDeliveryDate;
+
+    @Column(name = "last_subscription_id", length = 64)
+    String lastSubscriptionId;
+
+    @Column(name = "processed_count", nullable = false)
+    Long processedCount;
+
+    @Column(name = "error_count", nullable = false)
+    Long errorCount;
+}
@@ -0,0 +1,55 @@
+package com.subscription.core.entity;
+
+import com.subscription.core.enums.PartitionLeaseStatus;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * Lease on one firing of rolling order generation: a slot on a date, or the end-of-day sweep.
+ * Rows are created and claimed through native queries in RollingSlotRunRepository.
+ */
+@Entity
+@Table(name = "rolling_slot_runs")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RollingSlotRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "slot_run_id", length = 64)
+    String slotRunId;
+
+    @Column(name = "run_date", nullable = false)
+    LocalDate runDate;
+
+    @Column(name = "slot_id", length = 64, nullable = false)
+    String slotId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    PartitionLeaseStatus status;
+
+    @Column(name = "owner_id", columnDefinition = "varchar(255)")
+    String ownerId;
+
+    @Column(name = "lease_expires_at", columnDefinition = "TIMESTAMP")
+    ZonedDateTime leaseExpiresAt;
+
+    @Column(name = "completed_at", columnDefinition = "TIMESTAMP")
+    ZonedDateTime completedAt;
+}
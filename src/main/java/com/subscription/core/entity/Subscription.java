@@ -13,6 +13,7 @@ import lombok.experimental.FieldDefaults;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
 
 /**
@@ -69,6 +70,12 @@ public class Subscription extends BaseAuditableEntity {
     @Column(name = "deliveries_failed")
     Integer deliveriesFailed;
 
+    /**
+     * Written only by the order run's advancing queries, so entity saves never reset it.
+     */
+    @Column(name = "last_advanced_run_date", insertable = false, updatable = false)
+    LocalDate lastAdvancedRunDate;
+
     @Column(name = "paused_at", columnDefinition = "TIMESTAMP")
     ZonedDateTime pausedAt;
 
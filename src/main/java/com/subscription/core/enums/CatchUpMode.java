@@ -0,0 +1,13 @@
+package com.subscription.core.enums;
+
+/**
+ * How the order run handles subscriptions that missed more than one delivery.
+ */
+public enum CatchUpMode {
+    /** Advance one period per run (stale subscriptions stay due until they catch up). */
+    DISABLED,
+    /** Create an order for every missed occurrence up to the run day. */
+    ORDERS,
+    /** Create orders for the run day only and one SubscriptionDeliveriesMissed event for earlier occurrences. */
+    MISSED_EVENT
+}
@@ -0,0 +1,11 @@
+package com.subscription.core.enums;
+
+/**
+ * When orders are generated for due subscriptions.
+ */
+public enum OrderCreationMode {
+    /** One run at midnight for the whole day. */
+    NIGHTLY,
+    /** Per slot, shortly before each slot's start time. */
+    ROLLING
+}
@@ -0,0 +1,6 @@
+package com.subscription.core.enums;
+
+public enum OrderRunStatus {
+    RUNNING,
+    COMPLETED
+}
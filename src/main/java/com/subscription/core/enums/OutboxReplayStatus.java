@@ -0,0 +1,9 @@
+package com.subscription.core.enums;
+
+public enum OutboxReplayStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.subscription.core.enums;
+
+public enum PartitionLeaseStatus {
+    PENDING,
+    COMPLETED,
+    FAILED
+}
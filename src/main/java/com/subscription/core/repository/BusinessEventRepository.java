@@ -2,25 +2,166 @@ package com.subscription.core.repository;
 
 import com.subscription.core.entity.BusinessEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface BusinessEventRepository extends JpaRepository<BusinessEvent, UUID> {
 
     /**
-     * Fetch unpublished events for polling scheduler.
-     * Uses pessimistic write lock to prevent concurrent processing.
-     * Use this for production (multi-instance deployments).
+     * Claims the oldest unpublished events that are due for an attempt, at most batchSize of them,
+     * by leasing them: next_attempt_at is set to leaseUntil and the statement commits on its own,
+     * so no row lock is held while the events are sent. Until the lease expires the events are
+     * not due and no other relay claims them; events acknowledged in the meantime are marked
+     * published, failed ones get their retry time, and events whose relay died are claimed again
+     * after the lease.
+     * Reads the partial index idx_business_events_unpublished of each partition in created_at
+     * order (merged across partitions) and stops after batchSize rows; SKIP LOCKED makes
+     * concurrent claims (threads, fast-path workers or replicas) take disjoint batches instead of
+     * blocking on each other for the duration of the statement.
+     * Of the locked candidates, only events whose earlier unpublished events of the same
+     * aggregate are all among the candidates are leased. An earlier event that is leased by
+     * another relay, locked by a concurrent claim or waits out a retry backoff therefore holds
+     * back the rest of its aggregate, which keeps per-aggregate order until that event is
+     * published or dead-lettered; other aggregates are not affected.
+     * createdBefore limits the claim to events old enough to have been missed by the
+     * after-commit fast path. RETURNING yields no particular order; callers sort by createdAt.
      */
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT e FROM BusinessEvent e WHERE e.publishedAt IS NULL ORDER BY e.createdAt ASC")
-    List<BusinessEvent> findUnpublishedEventsWithLock();
+    @Transactional
+    @Query(value = """
+            WITH candidates AS (
+                SELECT e.event_id, e.created_at, e.aggregate_type, e.aggregate_id
+                FROM business_events e
+                WHERE e.published_at IS NULL
+                  AND e.dead_lettered_at IS NULL
+                  AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= :now)
+                  AND e.created_at <= :createdBefore
+                ORDER BY e.created_at
+                LIMIT :batchSize
+                FOR UPDATE OF e SKIP LOCKED
+            ), claimable AS (
+                SELECT c.event_id, c.created_at FROM candidates c
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM business_events earlier
+                    WHERE earlier.aggregate_type = c.aggregate_type
+                      AND earlier.aggregate_id = c.aggregate_id
+                      AND earlier.published_at IS NULL
+                      AND earlier.dead_lettered_at IS NULL
+                      AND earlier.created_at < c.created_at
+                      AND NOT EXISTS (SELECT 1 FROM candidates o WHERE o.event_id = earlier.event_id))
+            )
+            UPDATE business_events e SET next_attempt_at = :leaseUntil
+            FROM claimable c
+            WHERE e.event_id = c.event_id AND e.created_at = c.created_at
+            RETURNING e.*
+            """, nativeQuery = true)
+    List<BusinessEvent> claimUnpublishedBatch(@Param("batchSize") int batchSize, @Param("now") Instant now,
+                                              @Param("createdBefore") Instant createdBefore,
+                                              @Param("leaseUntil") Instant leaseUntil);
+
+    /**
+     * Claims the given events for the after-commit fast path by leasing them like
+     * {@link #claimUnpublishedBatch}, skipping those already published, leased or locked by
+     * another relay, or preceded by a still unpublished event of the same aggregate outside
+     * this set (those are left to the sweep so the aggregate stays in order).
+     * createdFrom prunes the partitions that cannot hold any of the events.
+     */
+    @Transactional
+    @Query(value = """
+            WITH candidates AS (
+                SELECT e.event_id, e.created_at, e.aggregate_type, e.aggregate_id
+                FROM business_events e
+                WHERE e.event_id IN (:eventIds)
+                  AND e.created_at >= :createdFrom
+                  AND e.published_at IS NULL
+                  AND e.dead_lettered_at IS NULL
+                  AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= :now)
+                FOR UPDATE OF e SKIP LOCKED
+            ), claimable AS (
+                SELECT c.event_id, c.created_at FROM candidates c
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM business_events earlier
+                    WHERE earlier.aggregate_type = c.aggregate_type
+                      AND earlier.aggregate_id = c.aggregate_id
+                      AND earlier.published_at IS NULL
+                      AND earlier.dead_lettered_at IS NULL
+                      AND earlier.created_at < c.created_at
+                      AND NOT EXISTS (SELECT 1 FROM candidates o WHERE o.event_id = earlier.event_id))
+            )
+            UPDATE business_events e SET next_attempt_at = :leaseUntil
+            FROM claimable c
+            WHERE e.event_id = c.event_id AND e.created_at = c.created_at
+            RETURNING e.*
+            """, nativeQuery = true)
+    List<BusinessEvent> claimEvents(@Param("eventIds") Collection<UUID> eventIds,
+                                    @Param("createdFrom") Instant createdFrom,
+                                    @Param("now") Instant now,
+                                    @Param("leaseUntil") Instant leaseUntil);
+
+    /**
+     * Reads the next page of published events created before :to for replay, in
+     * (created_at, event_id) order after the given keyset position, served by
+     * idx_business_events_published_keyset. Each page is its own short read, so a long replay
+     * holds neither a connection nor a snapshot between pages. Superseded events were never
+     * sent and are skipped. Pass anyAggregateId=true (with a placeholder list) to ignore
+     * aggregateIds, and a null aggregateType for all types.
+     */
+    @Query(value = """
+            SELECT e.* FROM business_events e
+            WHERE (e.created_at, e.event_id) > (:afterCreatedAt, :afterEventId)
+              AND e.created_at < :to
+              AND e.published_at IS NOT NULL
+              AND e.superseded_by IS NULL
+              AND (CAST(:aggregateType AS varchar) IS NULL OR e.aggregate_type = :aggregateType)
+              AND (:anyAggregateId OR e.aggregate_id IN (:aggregateIds))
+            ORDER BY e.created_at, e.event_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<BusinessEvent> findReplayPage(@Param("afterCreatedAt") Instant afterCreatedAt,
+                                       @Param("afterEventId") UUID afterEventId,
+                                       @Param("to") Instant to,
+                                       @Param("aggregateType") String aggregateType,
+                                       @Param("anyAggregateId") boolean anyAggregateId,
+                                       @Param("aggregateIds") Collection<String> aggregateIds,
+                                       @Param("limit") int limit);
+
+    /**
+     * Dead-lettered events, most recently dead-lettered first.
+     */
+    @Query(value = """
+            SELECT * FROM business_events
+            WHERE dead_lettered_at IS NOT NULL
+            ORDER BY dead_lettered_at DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<BusinessEvent> findDeadLettered(@Param("limit") int limit);
+
+    /**
+     * Puts dead-lettered events back in the outbox with a fresh attempt budget.
+     * The last error is kept for reference.
+     */
+    @Modifying
+    @Query("""
+            UPDATE BusinessEvent e SET e.deadLetteredAt = null, e.nextAttemptAt = null, e.attemptCount = 0
+            WHERE e.deadLetteredAt IS NOT NULL AND e.eventId IN :eventIds
+            """)
+    int requeueDeadLettered(@Param("eventIds") Collection<UUID> eventIds);
+
+    @Modifying
+    @Query("""
+            UPDATE BusinessEvent e SET e.deadLetteredAt = null, e.nextAttemptAt = null, e.attemptCount = 0
+            WHERE e.deadLetteredAt IS NOT NULL
+            """)
+    int requeueAllDeadLettered();
 
     /**
      * Simpler query for development (single instance).
@@ -34,12 +175,83 @@ public interface BusinessEventRepository extends JpaRepository<BusinessEvent, UU
     List<BusinessEvent> findByPublishedAtIsNullOrderByCreatedAtAsc();
 
     /**
-     * Find published events (for cleanup jobs).
+     * Marks the given events published in one statement.
+     * createdFrom (the oldest createdAt among them) lets Postgres prune the daily partitions
+     * that cannot hold any of the events instead of probing every partition's primary key.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE BusinessEvent e SET e.publishedAt = :publishedAt
+            WHERE e.eventId IN :eventIds AND e.createdAt >= :createdFrom
+            """)
+    int markPublished(@Param("eventIds") Collection<UUID> eventIds, @Param("createdFrom") Instant createdFrom,
+                      @Param("publishedAt") Instant publishedAt);
+
+    /**
+     * Records a failed attempt of one event: its attempt count and last error, and either the
+     * time of its next attempt or the time it was dead-lettered. createdAt limits the update to
+     * the event's partition.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE BusinessEvent e
+            SET e.attemptCount = :attemptCount, e.lastError = :lastError,
+                e.nextAttemptAt = :nextAttemptAt, e.deadLetteredAt = :deadLetteredAt
+            WHERE e.eventId = :eventId AND e.createdAt = :createdAt
+            """)
+    int recordFailure(@Param("eventId") UUID eventId, @Param("createdAt") Instant createdAt,
+                      @Param("attemptCount") int attemptCount, @Param("lastError") String lastError,
+                      @Param("nextAttemptAt") Instant nextAttemptAt, @Param("deadLetteredAt") Instant deadLetteredAt);
+
+    /**
+     * Marks coalesced events published without sending them, each pointing to the event that
+     * superseded it. The two comma-separated lists are aligned by position, so one statement
+     * covers a whole batch.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE business_events e
+            SET published_at = :publishedAt, superseded_by = s.superseded_by
+            FROM unnest(CAST(string_to_array(:eventIds, ',') AS uuid[]),
+                        CAST(string_to_array(:supersededBy, ',') AS uuid[])) AS s(event_id, superseded_by)
+            WHERE e.event_id = s.event_id AND e.created_at >= :createdFrom
+            """, nativeQuery = true)
+    int markSuperseded(@Param("eventIds") String eventIds, @Param("supersededBy") String supersededBy,
+                       @Param("createdFrom") Instant createdFrom, @Param("publishedAt") Instant publishedAt);
+
+    /**
+     * Counts live unpublished events (not dead-lettered), stopping at the cap so a huge backlog
+     * costs a bounded index scan.
+     */
+    @Query(value = """
+            SELECT count(*) FROM (
+                SELECT 1 FROM business_events WHERE published_at IS NULL AND dead_lettered_at IS NULL LIMIT :cap
+            ) backlog
+            """, nativeQuery = true)
+    long countUnpublishedUpTo(@Param("cap") int cap);
+
+    /**
+     * Creation time of the oldest live unpublished event, i.e. the head of the outbox queue.
      */
-    List<BusinessEvent> findByPublishedAtIsNotNull();
+    @Query(value = """
+            SELECT min(created_at) FROM business_events
+            WHERE published_at IS NULL AND dead_lettered_at IS NULL
+            """, nativeQuery = true)
+    Optional<Instant> findOldestUnpublishedCreatedAt();
 
     /**
-     * Count unpublished events (for health checks).
+     * Counts events published since the given instant (drain rate sampling), among events
+     * created after createdAfter so only the most recent partitions are searched; within them
+     * the partial index idx_business_events_published reads just the recently published rows.
      */
-    long countByPublishedAtIsNull();
+    @Query(value = """
+            SELECT count(*) FROM business_events
+            WHERE created_at >= :createdAfter
+              AND published_at IS NOT NULL
+              AND published_at >= :since
+            """, nativeQuery = true)
+    long countPublishedSince(@Param("since") Instant since, @Param("createdAfter") Instant createdAfter);
 }
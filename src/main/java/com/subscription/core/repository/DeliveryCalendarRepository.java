@@ -0,0 +1,72 @@
+package com.subscription.core.repository;
+
+import com.subscription.core.entity.DeliveryCalendarEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Repository
+public interface DeliveryCalendarRepository extends JpaRepository<DeliveryCalendarEntry, String> {
+
+    /**
+     * Deliveries in [dayStart, dayEnd), optionally for one slot (pass null for all slots).
+     * Served by idx_delivery_calendar_date_slot.
+     */
+    @Query(value = """
+            SELECT c.* FROM delivery_calendar c
+            WHERE c.delivery_date >= :dayStart AND c.delivery_date < :dayEnd
+              AND (CAST(:slotId AS varchar) IS NULL OR c.slot_id = :slotId)
+            ORDER BY c.slot_id, c.delivery_date, c.subscription_id
+            """, nativeQuery = true)
+    List<DeliveryCalendarEntry> findDeliveries(@Param("dayStart") ZonedDateTime dayStart,
+                                               @Param("dayEnd") ZonedDateTime dayEnd,
+                                               @Param("slotId") String slotId);
+
+    @Modifying
+    @Query(value = "DELETE FROM delivery_calendar WHERE subscription_id = :subscriptionId", nativeQuery = true)
+    int deleteBySubscriptionId(@Param("subscriptionId") String subscriptionId);
+
+    /**
+     * Drops the occurrences the order run has moved past (before the new next_delivery_date).
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM delivery_calendar c
+            USING subscriptions s
+            WHERE c.subscription_id = s.subscription_id
+              AND s.subscription_id IN (:subscriptionIds)
+              AND c.delivery_date < s.next_delivery_date
+            """, nativeQuery = true)
+    int deletePastOccurrences(@Param("subscriptionIds") List<String> subscriptionIds);
+
+    /**
+     * Appends one occurrence per subscription, one period after its last calendar entry (or at
+     * next_delivery_date when it has none), keeping the horizon constant after an advance.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO delivery_calendar (calendar_id, subscription_id, slot_id, delivery_date)
+            SELECT gen_random_uuid()::varchar, s.subscription_id, s.slot_id,
+                   CASE
+                       WHEN last.delivery_date IS NULL THEN s.next_delivery_date
+                       WHEN s.frequency = 'DAILY' THEN last.delivery_date + INTERVAL '1 day'
+                       WHEN s.frequency = 'WEEKLY' THEN last.delivery_date + INTERVAL '1 week'
+                       ELSE last.delivery_date + INTERVAL '1 month'
+                   END
+            FROM subscriptions s
+            LEFT JOIN LATERAL (
+                SELECT max(c.delivery_date) AS delivery_date
+                FROM delivery_calendar c
+                WHERE c.subscription_id = s.subscription_id
+            ) last ON true
+            WHERE s.subscription_id IN (:subscriptionIds)
+              AND s.status = 'ACTIVE'
+            ON CONFLICT (subscription_id, delivery_date) DO NOTHING
+            """, nativeQuery = true)
+    int appendNextOccurrence(@Param("subscriptionIds") List<String> subscriptionIds);
+}
@@ -0,0 +1,54 @@
+package com.subscription.core.repository;
+
+import com.subscription.core.entity.OrderRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderRecordRepository extends JpaRepository<OrderRecord, String> {
+
+    /**
+     * Writes an order unless it already exists; order IDs are deterministic, so a replayed
+     * chunk leaves the ledger unchanged.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO orders (order_id, subscription_id, subscription_ids, user_id, slot_id, delivery_address_id,
+                                product_ids, total_amount, delivery_date, created_at)
+            VALUES (:orderId, :subscriptionId, :subscriptionIds, :userId, :slotId, :deliveryAddressId,
+                    :productIds, :totalAmount, :deliveryDate, :createdAt)
+            ON CONFLICT (order_id, delivery_date) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("orderId") String orderId,
+                       @Param("subscriptionId") String subscriptionId,
+                       @Param("subscriptionIds") String subscriptionIds,
+                       @Param("userId") String userId,
+                       @Param("slotId") String slotId,
+                       @Param("deliveryAddressId") String deliveryAddressId,
+                       @Param("productIds") String productIds,
+                       @Param("totalAmount") BigDecimal totalAmount,
+                       @Param("deliveryDate") ZonedDateTime deliveryDate,
+                       @Param("createdAt") ZonedDateTime createdAt);
+
+    /**
+     * Orders of a slot delivered in [dayStart, dayEnd); prunes to one partition and uses
+     * idx_orders_slot_delivery.
+     */
+    @Query(value = """
+            SELECT o.* FROM orders o
+            WHERE o.slot_id = :slotId AND o.delivery_date >= :dayStart AND o.delivery_date < :dayEnd
+            ORDER BY o.delivery_date, o.order_id
+            """, nativeQuery = true)
+    List<OrderRecord> findBySlotAndDay(@Param("slotId") String slotId,
+                                       @Param("dayStart") ZonedDateTime dayStart,
+                                       @Param("dayEnd") ZonedDateTime dayEnd);
+
+    List<OrderRecord> findByUserIdOrderByDeliveryDateDesc(String userId);
+}
@@ -0,0 +1,135 @@
+package com.subscription.core.repository;
+
+import com.subscription.core.entity.OrderRunPartitionLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderRunPartitionLeaseRepository extends JpaRepository<OrderRunPartitionLease, String> {
+
+    List<OrderRunPartitionLease> findByRunDateOrderByPartitionIndexAsc(LocalDate runDate);
+
+    /**
+     * Creates the lease rows of a run if no instance has created them yet.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_run_partition_leases (lease_id, run_id, run_date, partition_index, status)
+            SELECT gen_random_uuid()::varchar, :runId, :runDate, p, 'PENDING'
+            FROM generate_series(0, :partitionCount - 1) AS p
+            ON CONFLICT (run_date, partition_index) DO NOTHING
+            """, nativeQuery = true)
+    int seedPartitions(@Param("runId") String runId,
+                       @Param("runDate") LocalDate runDate,
+                       @Param("partitionCount") int partitionCount);
+
+    /**
+     * Atomically claims the lowest pending partition that is unowned or whose lease expired.
+     * With reclaimOwn, a partition still leased to the same owner is claimable as well; that is
+     * only valid when an instance restarted with a stable id and resumes its own lanes.
+     * SKIP LOCKED lets concurrent claimers move past rows another lane is claiming.
+     *
+     * @return The claimed lease including its watermark, empty if nothing is claimable right now
+     */
+    @Query(value = """
+            UPDATE order_run_partition_leases l
+            SET owner_id = :ownerId,
+                lease_expires_at = now() + make_interval(secs => :leaseSeconds),
+                modified_on = now()
+            WHERE l.lease_id = (
+                SELECT c.lease_id FROM order_run_partition_leases c
+                WHERE c.run_date = :runDate
+                  AND c.status = 'PENDING'
+                  AND (c.owner_id IS NULL OR c.lease_expires_at < now()
+                       OR (:reclaimOwn AND c.owner_id = :ownerId))
+                ORDER BY c.partition_index
+                LIMIT 1
+                FOR UPDATE SKIP LOCKED)
+            RETURNING l.*
+            """, nativeQuery = true)
+    Optional<OrderRunPartitionLease> claimNextPartition(@Param("runDate") LocalDate runDate,
+                                                        @Param("ownerId") String ownerId,
+                                                        @Param("leaseSeconds") int leaseSeconds,
+                                                        @Param("reclaimOwn") boolean reclaimOwn);
+
+    /**
+     * Records a committed chunk: moves the watermark, adds to the counters and extends the
+     * lease. Must run in the chunk's transaction so watermark and chunk commit together.
+     *
+     * @return 1 if recorded, 0 if the lease was lost to another instance
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE order_run_partition_leases
+            SET last_delivery_date = :lastDeliveryDate,
+                last_subscription_id = :lastSubscriptionId,
+                processed_count = processed_count + :processed,
+                lease_expires_at = now() + make_interval(secs => :leaseSeconds),
+                modified_on = now()
+            WHERE run_date = :runDate AND partition_index = :partitionIndex
+              AND owner_id = :ownerId AND status = 'PENDING'
+            """, nativeQuery = true)
+    int recordChunk(@Param("runDate") LocalDate runDate,
+                    @Param("partitionIndex") int partitionIndex,
+                    @Param("ownerId") String ownerId,
+                    @Param("leaseSeconds") int leaseSeconds,
+                    @Param("lastDeliveryDate") ZonedDateTime lastDeliveryDate,
+                    @Param("lastSubscriptionId") String lastSubscriptionId,
+                    @Param("processed") int processed);
+
+    /**
+     * Records a failed chunk. The lease is kept but its expiry is pushed out by a backoff that
+     * doubles with every error, so no lane re-claims the partition before then. Once the partition
+     * reaches maxErrors it is marked FAILED and no longer claimed.
+     *
+     * @return 1 if recorded, 0 if the lease was lost to another owner
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE order_run_partition_leases
+            SET error_count = error_count + 1,
+                status = CASE WHEN error_count + 1 >= :maxErrors THEN 'FAILED' ELSE status END,
+                lease_expires_at = now() + make_interval(secs => :retryDelaySeconds * power(2, least(error_count, 10))),
+                modified_on = now()
+            WHERE run_date = :runDate AND partition_index = :partitionIndex
+              AND owner_id = :ownerId AND status = 'PENDING'
+            """, nativeQuery = true)
+    int recordError(@Param("runDate") LocalDate runDate,
+                    @Param("partitionIndex") int partitionIndex,
+                    @Param("ownerId") String ownerId,
+                    @Param("retryDelaySeconds") int retryDelaySeconds,
+                    @Param("maxErrors") int maxErrors);
+
+    @Modifying
+    @Query(value = """
+            UPDATE order_run_partition_leases
+            SET status = 'COMPLETED', completed_at = now(), lease_expires_at = NULL, modified_on = now()
+            WHERE run_date = :runDate AND partition_index = :partitionIndex AND owner_id = :ownerId
+            """, nativeQuery = true)
+    int completePartition(@Param("runDate") LocalDate runDate,
+                          @Param("partitionIndex") int partitionIndex,
+                          @Param("ownerId") String ownerId);
+
+    /**
+     * Counts partitions still to be processed; FAILED partitions are finished for the run.
+     */
+    @Query(value = """
+            SELECT count(*) FROM order_run_partition_leases
+            WHERE run_date = :runDate AND status = 'PENDING'
+            """, nativeQuery = true)
+    long countIncompletePartitions(@Param("runDate") LocalDate runDate);
+
+    @Query(value = """
+            SELECT count(*) FROM order_run_partition_leases
+            WHERE run_date = :runDate AND status = 'FAILED'
+            """, nativeQuery = true)
+    long countFailedPartitions(@Param("runDate") LocalDate runDate);
+}
@@ -0,0 +1,52 @@
+package com.subscription.core.repository;
+
+import com.subscription.core.entity.OrderRun;
+import com.subscription.core.enums.OrderRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+@Repository
+public interface OrderRunRepository extends JpaRepository<OrderRun, String> {
+
+    Optional<OrderRun> findByRunDate(LocalDate runDate);
+
+    Optional<OrderRun> findByRunDateAndStatus(LocalDate runDate, OrderRunStatus status);
+
+    /**
+     * Registers a run for the date unless one already exists (started by another instance
+     * or by an earlier, interrupted attempt).
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_runs (run_id, run_date, status, started_at)
+            VALUES (:runId, :runDate, 'RUNNING', :startedAt)
+            ON CONFLICT (run_date) DO NOTHING
+            """, nativeQuery = true)
+    int startRun(@Param("runId") String runId,
+                 @Param("runDate") LocalDate runDate,
+                 @Param("startedAt") ZonedDateTime startedAt);
+
+    /**
+     * Marks a run completed and rolls up the partition counters.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE order_runs r
+            SET status = 'COMPLETED',
+                completed_at = now(),
+                modified_on = now(),
+                processed_count = t.processed,
+                error_count = t.errors
+            FROM (SELECT COALESCE(sum(processed_count), 0) AS processed, COALESCE(sum(error_count), 0) AS errors
+                  FROM order_run_partition_leases WHERE run_id = :runId) t
+            WHERE r.run_id = :runId AND r.status = 'RUNNING'
+            """, nativeQuery = true)
+    int completeRun(@Param("runId") String runId);
+}
@@ -0,0 +1,83 @@
+package com.subscription.core.repository;
+
+import com.subscription.core.entity.RollingSlotRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface RollingSlotRunRepository extends JpaRepository<RollingSlotRun, String> {
+
+    /**
+     * Claims the firing of a slot on a date: creates its row leased to the owner, or takes over
+     * a pending row whose lease expired. A completed firing or one leased to another live owner
+     * is left alone.
+     *
+     * @return 1 if claimed, 0 otherwise
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO rolling_slot_runs (slot_run_id, run_date, slot_id, status, owner_id, lease_expires_at)
+            VALUES (gen_random_uuid()::varchar, :runDate, :slotId, 'PENDING', :ownerId,
+                    now() + make_interval(secs => :leaseSeconds))
+            ON CONFLICT (run_date, slot_id) DO UPDATE
+            SET owner_id = EXCLUDED.owner_id,
+                lease_expires_at = EXCLUDED.lease_expires_at,
+                modified_on = now()
+            WHERE rolling_slot_runs.status = 'PENDING'
+              AND rolling_slot_runs.lease_expires_at < now()
+            """, nativeQuery = true)
+    int claim(@Param("runDate") LocalDate runDate,
+              @Param("slotId") String slotId,
+              @Param("ownerId") String ownerId,
+              @Param("leaseSeconds") int leaseSeconds);
+
+    @Modifying
+    @Query(value = """
+            UPDATE rolling_slot_runs
+            SET status = 'COMPLETED', completed_at = now(), lease_expires_at = NULL, modified_on = now()
+            WHERE run_date = :runDate AND slot_id = :slotId AND owner_id = :ownerId
+            """, nativeQuery = true)
+    int complete(@Param("runDate") LocalDate runDate,
+                 @Param("slotId") String slotId,
+                 @Param("ownerId") String ownerId);
+
+    /**
+     * Extends the lease of a firing still owned by the owner.
+     *
+     * @return 1 if renewed, 0 if the lease was lost to another owner
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE rolling_slot_runs
+            SET lease_expires_at = now() + make_interval(secs => :leaseSeconds), modified_on = now()
+            WHERE run_date = :runDate AND slot_id = :slotId AND owner_id = :ownerId AND status = 'PENDING'
+            """, nativeQuery = true)
+    int renew(@Param("runDate") LocalDate runDate,
+              @Param("slotId") String slotId,
+              @Param("ownerId") String ownerId,
+              @Param("leaseSeconds") int leaseSeconds);
+
+    /**
+     * Releases a failed firing so it can be claimed again right away.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE rolling_slot_runs
+            SET owner_id = NULL, lease_expires_at = now(), modified_on = now()
+            WHERE run_date = :runDate AND slot_id = :slotId AND owner_id = :ownerId AND status = 'PENDING'
+            """, nativeQuery = true)
+    int release(@Param("runDate") LocalDate runDate,
+                @Param("slotId") String slotId,
+                @Param("ownerId") String ownerId);
+
+    @Query(value = """
+            SELECT count(*) FROM rolling_slot_runs
+            WHERE run_date = :runDate AND slot_id = :slotId AND status = 'COMPLETED'
+            """, nativeQuery = true)
+    long countCompleted(@Param("runDate") LocalDate runDate, @Param("slotId") String slotId);
+}
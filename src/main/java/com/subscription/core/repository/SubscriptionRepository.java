@@ -2,10 +2,18 @@ package com.subscription.core.repository;
 
 import com.subscription.core.entity.Subscription;
 import com.subscription.core.enums.SubscriptionStatus;
+import com.subscription.core.repository.projection.AdvancedSubscriptionProjection;
+import com.subscription.core.repository.projection.ProductOrderForecastProjection;
+import com.subscription.core.repository.projection.SlotOrderForecastProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +25,239 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Stri
     List<Subscription> findBySlotId(String slotId);
     List<Subscription> findByStatus(SubscriptionStatus status);
     List<Subscription> findByStatusAndNextDeliveryDateLessThanEqual(SubscriptionStatus status, ZonedDateTime date);
+
+    /**
+     * Selects the next chunk of due subscriptions and advances them in one statement.
+     * Rows are picked with keyset pagination on (next_delivery_date, subscription_id), served by
+     * idx_subscriptions_status_next_delivery, restricted to one hash partition of subscription_id
+     * (of user_id when partitionByUser is set, so all subscriptions of a user share a partition;
+     * pass partitionCount 1 and partitionIndex 0 for all rows) and optionally to one slot
+     * (pass a null slotId for all slots). Rows whose last_advanced_run_date is already the run
+     * date are skipped so an advanced subscription is not picked up twice in one run.
+     * next_delivery_date moves one period ahead according to frequency, deliveries_completed
+     * is incremented and last_advanced_run_date is set to the run date; the affected rows are
+     * returned with the pre-advance delivery date.
+     * Rows are locked with a plain FOR UPDATE: a row held by a concurrent writer (user edit,
+     * pause, consolidation sibling, rolling sweep) is waited for and re-checked rather than
+     * skipped, because the keyset cursor would otherwise move past it for good. Rows that no
+     * longer qualify after the wait drop out, so a chunk may come back short of the limit.
+     */
+    @Query(value = """
+            WITH due AS (
+                SELECT s.subscription_id, s.next_delivery_date AS delivery_date
+                FROM subscriptions s
+                WHERE s.status = :status
+                  AND s.next_delivery_date <= :cutoff
+                  AND (s.last_advanced_run_date IS NULL OR s.last_advanced_run_date < :runDate)
+                  AND (s.next_delivery_date, s.subscription_id) > (:lastDeliveryDate, :lastSubscriptionId)
+                  AND (hashtext(CASE WHEN :partitionByUser THEN s.user_id ELSE s.subscription_id END) & 2147483647)
+                      % :partitionCount = :partitionIndex
+                  AND (CAST(:slotId AS varchar) IS NULL OR s.slot_id = :slotId)
+                ORDER BY s.next_delivery_date, s.subscription_id
+                LIMIT :limit
+                FOR UPDATE
+            )
+            UPDATE subscriptions s
+            SET next_delivery_date = CASE s.frequency
+                    WHEN 'DAILY' THEN s.next_delivery_date + INTERVAL '1 day'
+                    WHEN 'WEEKLY' THEN s.next_delivery_date + INTERVAL '1 week'
+                    WHEN 'MONTHLY' THEN s.next_delivery_date + INTERVAL '1 month'
+                END,
+                deliveries_completed = COALESCE(s.deliveries_completed, 0) + 1,
+                last_advanced_run_date = :runDate,
+                modified_on = :modifiedOn,
+                modified_by = 'SYSTEM'
+            FROM due
+            WHERE s.subscription_id = due.subscription_id
+            RETURNING s.subscription_id AS "subscriptionId",
+                      s.user_id AS "userId",
+                      s.slot_id AS "slotId",
+                      s.delivery_address_id AS "deliveryAddressId",
+                      s.product_ids AS "productIds",
+                      s.total_amount AS "totalAmount",
+                      s.frequency AS "frequency",
+                      due.delivery_date AS "deliveryDate",
+                      s.next_delivery_date AS "nextDeliveryDate",
+                      s.deliveries_completed AS "deliveriesCompleted"
+            """, nativeQuery = true)
+    List<AdvancedSubscriptionProjection> advanceDueChunk(
+            @Param("status") String status,
+            @Param("cutoff") ZonedDateTime cutoff,
+            @Param("runDate") LocalDate runDate,
+            @Param("lastDeliveryDate") ZonedDateTime lastDeliveryDate,
+            @Param("lastSubscriptionId") String lastSubscriptionId,
+            @Param("partitionCount") int partitionCount,
+            @Param("partitionIndex") int partitionIndex,
+            @Param("partitionByUser") boolean partitionByUser,
+            @Param("slotId") String slotId,
+            @Param("limit") int limit,
+            @Param("modifiedOn") ZonedDateTime modifiedOn);
+
+    /**
+     * Advances every other due subscription of the given users that the run has not advanced
+     * yet (optionally within one slot), ignoring the keyset position, so that all deliveries of
+     * a household on a date are handled in the same chunk. Requires the run to be partitioned by
+     * user_id so no other worker holds these rows. Same advancement and RETURNING shape as
+     * advanceDueChunk.
+     */
+    @Query(value = """
+            WITH due AS (
+                SELECT s.subscription_id, s.next_delivery_date AS delivery_date
+                FROM subscriptions s
+                WHERE s.status = :status
+                  AND s.next_delivery_date <= :cutoff
+                  AND (s.last_advanced_run_date IS NULL OR s.last_advanced_run_date < :runDate)
+                  AND s.user_id IN (:userIds)
+                  AND (CAST(:slotId AS varchar) IS NULL OR s.slot_id = :slotId)
+                FOR UPDATE
+            )
+            UPDATE subscriptions s
+            SET next_delivery_date = CASE s.frequency
+                    WHEN 'DAILY' THEN s.next_delivery_date + INTERVAL '1 day'
+                    WHEN 'WEEKLY' THEN s.next_delivery_date + INTERVAL '1 week'
+                    WHEN 'MONTHLY' THEN s.next_delivery_date + INTERVAL '1 month'
+                END,
+                deliveries_completed = COALESCE(s.deliveries_completed, 0) + 1,
+                last_advanced_run_date = :runDate,
+                modified_on = :modifiedOn,
+                modified_by = 'SYSTEM'
+            FROM due
+            WHERE s.subscription_id = due.subscription_id
+            RETURNING s.subscription_id AS "subscriptionId",
+                      s.user_id AS "userId",
+                      s.slot_id AS "slotId",
+                      s.delivery_address_id AS "deliveryAddressId",
+                      s.product_ids AS "productIds",
+                      s.total_amount AS "totalAmount",
+                      s.frequency AS "frequency",
+                      due.delivery_date AS "deliveryDate",
+                      s.next_delivery_date AS "nextDeliveryDate",
+                      s.deliveries_completed AS "deliveriesCompleted"
+            """, nativeQuery = true)
+    List<AdvancedSubscriptionProjection> advanceUserSiblings(
+            @Param("status") String status,
+            @Param("cutoff") ZonedDateTime cutoff,
+            @Param("runDate") LocalDate runDate,
+            @Param("userIds") Collection<String> userIds,
+            @Param("slotId") String slotId,
+            @Param("modifiedOn") ZonedDateTime modifiedOn);
+
+    /**
+     * Counts due subscriptions a run has not advanced yet (same filter as advanceDueChunk).
+     */
+    @Query(value = """
+            SELECT count(*) FROM subscriptions s
+            WHERE s.status = :status
+              AND s.next_delivery_date <= :cutoff
+              AND (s.last_advanced_run_date IS NULL OR s.last_advanced_run_date < :runDate)
+            """, nativeQuery = true)
+    long countRemainingDue(@Param("status") String status,
+                           @Param("cutoff") ZonedDateTime cutoff,
+                           @Param("runDate") LocalDate runDate);
+
+    /**
+     * Day of the earliest next delivery among the subscriptions due by the cutoff; catch-up
+     * orders of a run are dated from that day on.
+     */
+    @Query(value = """
+            SELECT min(s.next_delivery_date)::date FROM subscriptions s
+            WHERE s.status = :status AND s.next_delivery_date <= :cutoff
+            """, nativeQuery = true)
+    Optional<LocalDate> findEarliestDueDeliveryDate(@Param("status") String status,
+                                                    @Param("cutoff") ZonedDateTime cutoff);
+
+    /**
+     * Lists the slots that have at least one subscription due by the cutoff.
+     */
+    @Query(value = """
+            SELECT DISTINCT s.slot_id FROM subscriptions s
+            WHERE s.status = :status AND s.next_delivery_date <= :cutoff
+            """, nativeQuery = true)
+    List<String> findDueSlotIds(@Param("status") String status, @Param("cutoff") ZonedDateTime cutoff);
+
+    /**
+     * Aggregates the orders the run would create on a delivery day, per zone and slot, without
+     * loading or touching any subscription. A subscription counts when the day is one of its
+     * occurrences projected from next_delivery_date by frequency; rows already overdue before
+     * staleBefore count as well, as the next run picks them up regardless of cadence.
+     * Monthly occurrences are projected from the current next_delivery_date, which can differ
+     * by a day or two from step-by-step advancement around short months.
+     */
+    @Query(value = """
+            SELECT sl.zone_id AS "zoneId",
+                   s.slot_id AS "slotId",
+                   sl.start_time AS "startTime",
+                   COUNT(*) AS "orderCount",
+                   SUM(s.total_amount) AS "totalAmount"
+            FROM subscriptions s
+            LEFT JOIN slots sl ON sl.slot_id = s.slot_id
+            WHERE s.status = :status
+              AND s.next_delivery_date < :dayEnd
+              AND (s.next_delivery_date < :staleBefore
+                   OR s.frequency = 'DAILY'
+                   OR (s.frequency = 'WEEKLY'
+                       AND (CAST(:targetDate AS date) - CAST(s.next_delivery_date AS date)) % 7 = 0)
+                   OR (s.frequency = 'MONTHLY'
+                       AND CAST(s.next_delivery_date + make_interval(months =>
+                               CAST((EXTRACT(YEAR FROM CAST(:targetDate AS date)) - EXTRACT(YEAR FROM s.next_delivery_date)) * 12
+                                    + EXTRACT(MONTH FROM CAST(:targetDate AS date)) - EXTRACT(MONTH FROM s.next_delivery_date) AS int))
+                           AS date) = CAST(:targetDate AS date)))
+            GROUP BY sl.zone_id, s.slot_id, sl.start_time
+            ORDER BY sl.zone_id, sl.start_time, s.slot_id
+            """, nativeQuery = true)
+    List<SlotOrderForecastProjection> forecastOrdersBySlot(
+            @Param("status") String status,
+            @Param("targetDate") LocalDate targetDate,
+            @Param("dayEnd") ZonedDateTime dayEnd,
+            @Param("staleBefore") ZonedDateTime staleBefore);
+
+    /**
+     * Same selection as {@link #forecastOrdersBySlot}, counted per product of the comma-separated
+     * product_ids.
+     */
+    @Query(value = """
+            SELECT TRIM(p.product_id) AS "productId",
+                   COUNT(*) AS "orderCount"
+            FROM subscriptions s
+            CROSS JOIN LATERAL unnest(string_to_array(s.product_ids, ',')) AS p(product_id)
+            WHERE s.status = :status
+              AND s.next_delivery_date < :dayEnd
+              AND (s.next_delivery_date < :staleBefore
+                   OR s.frequency = 'DAILY'
+                   OR (s.frequency = 'WEEKLY'
+                       AND (CAST(:targetDate AS date) - CAST(s.next_delivery_date AS date)) % 7 = 0)
+                   OR (s.frequency = 'MONTHLY'
+                       AND CAST(s.next_delivery_date + make_interval(months =>
+                               CAST((EXTRACT(YEAR FROM CAST(:targetDate AS date)) - EXTRACT(YEAR FROM s.next_delivery_date)) * 12
+                                    + EXTRACT(MONTH FROM CAST(:targetDate AS date)) - EXTRACT(MONTH FROM s.next_delivery_date) AS int))
+                           AS date) = CAST(:targetDate AS date)))
+              AND TRIM(p.product_id) <> ''
+            GROUP BY TRIM(p.product_id)
+            ORDER BY COUNT(*) DESC
+            """, nativeQuery = true)
+    List<ProductOrderForecastProjection> forecastOrdersByProduct(
+            @Param("status") String status,
+            @Param("targetDate") LocalDate targetDate,
+            @Param("dayEnd") ZonedDateTime dayEnd,
+            @Param("staleBefore") ZonedDateTime staleBefore);
+
+    /**
+     * Moves a subscription that missed several deliveries straight to its first future
+     * occurrence in one write.
+     *
+     * @param completedDelta Deliveries to add on top of the increment already applied by advanceDueChunk
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE subscriptions
+            SET next_delivery_date = :nextDeliveryDate,
+                deliveries_completed = GREATEST(COALESCE(deliveries_completed, 0) + :completedDelta, 0),
+                modified_on = :modifiedOn,
+                modified_by = 'SYSTEM'
+            WHERE subscription_id = :subscriptionId
+            """, nativeQuery = true)
+    int catchUp(@Param("subscriptionId") String subscriptionId,
+                @Param("nextDeliveryDate") ZonedDateTime nextDeliveryDate,
+                @Param("completedDelta") int completedDelta,
+                @Param("modifiedOn") ZonedDateTime modifiedOn);
 }
@@ -0,0 +1,32 @@
+package com.subscription.core.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Row returned by the set-based advancement of due subscriptions.
+ * deliveryDate is the date the order is created for (the value before advancement),
+ * nextDeliveryDate the advanced value.
+ */
+public interface AdvancedSubscriptionProjection {
+
+    String getSubscriptionId();
+
+    String getUserId();
+
+    String getSlotId();
+
+    String getDeliveryAddressId();
+
+    String getProductIds();
+
+    BigDecimal getTotalAmount();
+
+    String getFrequency();
+
+    LocalDateTime getDeliveryDate();
+
+    LocalDateTime getNextDeliveryDate();
+
+    Integer getDeliveriesCompleted();
+}
@@ -0,0 +1,11 @@
+package com.subscription.core.repository.projection;
+
+/**
+ * Forecast aggregate of the orders containing one product on a delivery day.
+ */
+public interface ProductOrderForecastProjection {
+
+    String getProductId();
+
+    Long getOrderCount();
+}
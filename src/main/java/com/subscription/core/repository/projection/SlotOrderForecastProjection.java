@@ -0,0 +1,21 @@
+package com.subscription.core.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+
+/**
+ * Forecast aggregate of the orders one zone/slot will produce on a delivery day.
+ * zoneId and startTime are null when the subscription's slot no longer exists.
+ */
+public interface SlotOrderForecastProjection {
+
+    String getZoneId();
+
+    String getSlotId();
+
+    LocalTime getStartTime();
+
+    Long getOrderCount();
+
+    BigDecimal getTotalAmount();
+}
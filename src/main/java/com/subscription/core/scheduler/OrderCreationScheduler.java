@@ -1,143 +1,282 @@
 package com.subscription.core.scheduler;
 
-import com.subscription.core.entity.Subscription;
-import com.subscription.core.enums.SubscriptionFrequency;
-import com.subscription.core.enums.SubscriptionStatus;
-import com.subscription.core.repository.SubscriptionRepository;
-import com.subscription.core.service.OutboxEventPublisher;
-import com.subscription.shared.dto.event.OrderCreatedEvent;
+import com.subscription.core.dto.OrderChunkResultDTO;
+import com.subscription.core.dto.OrderLaneResultDTO;
+import com.subscription.core.dto.OrderRunContextDTO;
+import com.subscription.core.entity.OrderRun;
+import com.subscription.core.entity.OrderRunPartitionLease;
+import com.subscription.core.enums.OrderCreationMode;
+import com.subscription.core.service.OrderCreationService;
+import com.subscription.core.service.OrderRunLeaseCoordinator;
+import com.subscription.core.service.OrderRunLedgerService;
+import com.subscription.core.service.OrderRunMetrics;
+import com.subscription.core.service.OutboxBackpressureService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 
 /**
  * Scheduler to create orders from active subscriptions when nextDeliveryDate arrives.
  * Runs daily at 12:00 AM (midnight) to process subscriptions due for delivery.
+ *
+ * Due subscriptions are split into a fixed number of hash partitions of subscriptionId.
+ * Every replica fires the cron and its lanes claim partitions through
+ * {@link OrderRunLeaseCoordinator}, each lane under its own lease owner id, so the fleet
+ * processes disjoint partitions and scales out horizontally. Inside a partition, rows are
+ * streamed in keyset-paginated chunks, each in its own transaction. Each lane runs on its own
+ * worker thread (and therefore its own transaction and connection); the datasource pool must
+ * allow at least as many connections as there are lanes.
+ *
+ * Runs are recorded in the run ledger. When an instance starts while today's run is still
+ * marked running, it resumes that run from the partition watermarks instead of waiting for
+ * the next midnight; only then may a lane take back a lease it still holds from before the
+ * restart.
+ *
+ * Only active in order-creation.mode=NIGHTLY; in ROLLING mode {@link RollingOrderScheduler}
+ * generates orders per slot during the day.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OrderCreationScheduler {
 
-    private final SubscriptionRepository subscriptionRepository;
-    private final OutboxEventPublisher outboxEventPublisher;
+    private final OrderCreationService orderCreationService;
+    private final OrderRunLeaseCoordinator leaseCoordinator;
+    private final OrderRunLedgerService orderRunLedgerService;
+    private final OrderRunMetrics orderRunMetrics;
+    private final OutboxBackpressureService outboxBackpressureService;
+    private final OrderLedgerPartitionScheduler orderLedgerPartitionScheduler;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${order-creation.mode:NIGHTLY}")
+    private OrderCreationMode mode;
+
+    @Value("${order-creation.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${order-creation.lanes:1}")
+    private int lanes;
+
+    @Value("${order-creation.partitions:16}")
+    private int partitions;
+
+    @Value("${order-creation.lease.poll-interval-ms:30000}")
+    private long leasePollIntervalMs;
 
     /**
      * Processes active subscriptions that are due for delivery.
      * Runs daily at 12:00 AM (midnight).
      */
     @Scheduled(cron = "0 0 0 * * *")
-    @Transactional
     public void createOrdersForDueSubscriptions() {
-        log.info("[f:createOrdersForDueSubscriptions] Starting order creation scheduler");
-
+        if (mode != OrderCreationMode.NIGHTLY) {
+            return;
+        }
         ZonedDateTime now = ZonedDateTime.now();
-        ZonedDateTime endOfToday = now.toLocalDate().atStartOfDay(now.getZone()).plusDays(1);
+        executeRun(orderRunLedgerService.startOrJoin(now.toLocalDate(), now), false);
+    }
 
-        List<Subscription> dueSubscriptions = subscriptionRepository
-                .findByStatusAndNextDeliveryDateLessThanEqual(SubscriptionStatus.ACTIVE, endOfToday);
+    /**
+     * Resumes today's run if it was interrupted (crash or redeploy) before completing.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        if (mode != OrderCreationMode.NIGHTLY) {
+            return;
+        }
+        orderRunLedgerService.findInterruptedRun(LocalDate.now()).ifPresent(run -> {
+            log.info("[f:resumeInterruptedRun] Resuming order run {} for {}", run.getRunId(), run.getRunDate());
+            Thread.ofPlatform().name("order-run-resume").start(() -> executeRun(run, true));
+        });
+    }
 
-        if (dueSubscriptions.isEmpty()) {
-            log.info("[f:createOrdersForDueSubscriptions] No subscriptions due for delivery today");
+    /**
+     * Executes (or joins) a run: claims and processes partitions until the run is complete.
+     *
+     * @param run The ledger entry of the run
+     * @param resuming Whether the run is resumed after a restart of this instance
+     */
+    private void executeRun(OrderRun run, boolean resuming) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("[f:executeRun] Order run already in progress on this instance");
             return;
         }
 
-        log.info("[f:createOrdersForDueSubscriptions] Found {} subscriptions due for delivery", dueSubscriptions.size());
+        try {
+            log.info("[f:executeRun] Starting order run {} with {} lanes, {} partitions, chunk size {}",
+                    run.getRunId(), lanes, partitions, chunkSize);
 
-        int processedCount = 0;
-        int errorCount = 0;
+            ZoneId zone = ZoneId.systemDefault();
+            OrderRunContextDTO context = OrderRunContextDTO.builder()
+                    .runId(run.getRunId())
+                    .runDate(run.getRunDate())
+                    .startedAt(run.getStartedAt())
+                    .cutoff(run.getRunDate().plusDays(1).atStartOfDay(zone))
+                    .partitionCount(partitions)
+                    .chunkSize(chunkSize)
+                    .build();
 
-        for (Subscription subscription : dueSubscriptions) {
-            try {
-                processSubscription(subscription, now);
-                processedCount++;
-            } catch (Exception e) {
-                errorCount++;
-                log.error("[f:createOrdersForDueSubscriptions] Failed to process subscription: {}",
-                        subscription.getSubscriptionId(), e);
+            leaseCoordinator.seedPartitions(run.getRunId(), run.getRunDate(), partitions);
+            orderLedgerPartitionScheduler.preparePartitionsForDue(context.getCutoff());
+            orderRunMetrics.runStarted(context);
+
+            OrderLaneResultDTO total = lanes <= 1
+                    ? runWorker(context, 0, resuming)
+                    : runLanesInParallel(context, resuming);
+
+            orderRunLedgerService.completeIfFinished(run);
+
+            if (total.getFetchedCount() == 0 && total.getErrorCount() == 0) {
+                log.info("[f:executeRun] No subscriptions due for delivery processed by this instance");
+                return;
             }
-        }
 
-        log.info("[f:createOrdersForDueSubscriptions] Completed processing: {} successful, {} errors",
-                processedCount, errorCount);
+            log.info("[f:executeRun] Completed processing {} subscriptions in {} chunks: {} successful, {} errors",
+                    total.getFetchedCount(), total.getChunkCount(), total.getProcessedCount(), total.getErrorCount());
+        } finally {
+            orderRunMetrics.runFinished();
+            running.set(false);
+        }
     }
 
     /**
-     * Processes a single subscription: creates order event and updates subscription.
+     * Runs one claiming worker per lane on a dedicated pool and sums their counts.
+     * A failing lane is logged and counted as contributing nothing; the other lanes still finish,
+     * and its partition is re-taken once the lease expires.
      *
-     * @param subscription The subscription to process
-     * @param now Current timestamp
+     * @param context The run
+     * @param resuming Whether the run is resumed after a restart of this instance
+     * @return Aggregated counts of all lanes
      */
-    private void processSubscription(Subscription subscription, ZonedDateTime now) {
-        String orderId = UUID.randomUUID().toString();
-
-        log.info("[f:processSubscription] Creating order for subscription: {}, orderId: {}",
-                subscription.getSubscriptionId(), orderId);
-
-        OrderCreatedEvent orderEvent = OrderCreatedEvent.builder()
-                .orderId(orderId)
-                .subscriptionId(subscription.getSubscriptionId())
-                .userId(subscription.getUserId())
-                .deliveryAddressId(subscription.getDeliveryAddressId())
-                .productIds(subscription.getProductIds())
-                .totalAmount(subscription.getTotalAmount())
-                .deliveryDate(subscription.getNextDeliveryDate())
-                .createdAt(now)
-                .build();
-
-        outboxEventPublisher.publish(
-                "OrderCreated",
-                "Order",
-                orderId,
-                orderEvent);
-
-        updateSubscriptionForNextDelivery(subscription);
-
-        subscriptionRepository.save(subscription);
-
-        log.debug("[f:processSubscription] Successfully processed subscription: {}",
-                subscription.getSubscriptionId());
+    private OrderLaneResultDTO runLanesInParallel(OrderRunContextDTO context, boolean resuming) {
+        try (ExecutorService executor = Executors.newFixedThreadPool(lanes, new CustomizableThreadFactory("order-lane-"))) {
+            List<CompletableFuture<OrderLaneResultDTO>> futures = IntStream.range(0, lanes)
+                    .mapToObj(lane -> CompletableFuture
+                            .supplyAsync(() -> runWorker(context, lane, resuming), executor)
+                            .exceptionally(e -> {
+                                log.error("[f:runLanesInParallel] Lane {} failed", lane, e);
+                                return new OrderLaneResultDTO();
+                            }))
+                    .toList();
+
+            return futures.stream()
+                    .map(CompletableFuture::join)
+                    .reduce(new OrderLaneResultDTO(), OrderLaneResultDTO::add);
+        }
     }
 
     /**
-     * Updates subscription for next delivery: calculates next delivery date and increments deliveries completed.
+     * Claims and processes partitions until every partition of the run is completed.
+     * When nothing is claimable but other instances still hold leases, waits and retries so
+     * that a partition whose owner died, or that is held back after an error, is picked up once
+     * its lease expires.
      *
-     * @param subscription The subscription to update
+     * @param context The run
+     * @param lane Lane index, part of the lease owner id
+     * @param resuming Whether the first claim may take back a lease this lane held before a restart
+     * @return Counts for the partitions processed by this worker
      */
-    private void updateSubscriptionForNextDelivery(Subscription subscription) {
-        ZonedDateTime currentNextDeliveryDate = subscription.getNextDeliveryDate();
-        ZonedDateTime newNextDeliveryDate = calculateNextDeliveryDate(
-                currentNextDeliveryDate, subscription.getFrequency());
+    private OrderLaneResultDTO runWorker(OrderRunContextDTO context, int lane, boolean resuming) {
+        OrderLaneResultDTO result = new OrderLaneResultDTO();
+        String ownerId = leaseCoordinator.laneOwnerId(lane);
+        boolean reclaimOwn = resuming;
 
-        subscription.setNextDeliveryDate(newNextDeliveryDate);
+        while (ZonedDateTime.now().isBefore(context.getCutoff())) {
+            Optional<OrderRunPartitionLease> lease = leaseCoordinator.claimNextPartition(context.getRunDate(), ownerId, reclaimOwn);
+            reclaimOwn = false;
 
-        Integer deliveriesCompleted = subscription.getDeliveriesCompleted();
-        subscription.setDeliveriesCompleted(Objects.isNull(deliveriesCompleted) ? 1 : deliveriesCompleted + 1);
+            if (lease.isPresent()) {
+                result = result.add(runPartition(context, lease.get()));
+                continue;
+            }
 
-        log.debug("[f:updateSubscriptionForNextDelivery] Updated subscription: {}, new delivery date: {}, deliveries completed: {}",
-                subscription.getSubscriptionId(), newNextDeliveryDate, subscription.getDeliveriesCompleted());
+            if (leaseCoordinator.isRunComplete(context.getRunDate())) {
+                break;
+            }
+
+            try {
+                Thread.sleep(leasePollIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        return result;
     }
 
     /**
-     * Calculates the next delivery date based on frequency.
+     * Processes every due subscription of one claimed hash partition, chunk by chunk, starting
+     * after the watermark stored on the lease. Each chunk moves the watermark and renews the lease.
+     * Before each chunk the worker waits for outbox capacity. A failed chunk ends the partition
+     * for this lane; the lease is held back for the retry delay before it can be claimed again.
      *
-     * @param currentDate The current delivery date
-     * @param frequency The subscription frequency
-     * @return The next delivery date
+     * @param context The run
+     * @param lease The claimed partition lease
+     * @return Counts for this partition
      */
-    private ZonedDateTime calculateNextDeliveryDate(ZonedDateTime currentDate, SubscriptionFrequency frequency) {
-        return switch (frequency) {
-            case DAILY -> currentDate.plusDays(1);
-            case WEEKLY -> currentDate.plusWeeks(1);
-            case MONTHLY -> currentDate.plusMonths(1);
-        };
+    private OrderLaneResultDTO runPartition(OrderRunContextDTO context, OrderRunPartitionLease lease) {
+        int partitionIndex = lease.getPartitionIndex();
+        String ownerId = lease.getOwnerId();
+        ZonedDateTime lastDeliveryDate = Objects.isNull(lease.getLastDeliveryDate())
+                ? OrderCreationService.KEYSET_START_DATE : lease.getLastDeliveryDate();
+        String lastSubscriptionId = Objects.isNull(lease.getLastSubscriptionId())
+                ? OrderCreationService.KEYSET_START_ID : lease.getLastSubscriptionId();
+        OrderLaneResultDTO result = new OrderLaneResultDTO();
+
+        OrderChunkResultDTO chunk;
+        do {
+            outboxBackpressureService.awaitCapacity();
+            long startNanos = System.nanoTime();
+            try {
+                chunk = orderCreationService.processDueChunk(context, partitionIndex, ownerId, lastDeliveryDate, lastSubscriptionId);
+                orderRunMetrics.recordChunk(chunk, System.nanoTime() - startNanos);
+            } catch (Exception e) {
+                orderRunMetrics.recordError(e);
+                // The chunk rolled back as a whole; leave the partition unfinished and hold it back
+                // for the retry delay, after which any lane may retry it.
+                log.error("[f:runPartition] Chunk after ({}, {}) of partition {} failed",
+                        lastDeliveryDate, lastSubscriptionId, partitionIndex, e);
+                leaseCoordinator.recordError(context.getRunDate(), partitionIndex, ownerId);
+                return result.add(OrderLaneResultDTO.builder().errorCount(1).build());
+            }
+
+            lastDeliveryDate = chunk.getLastDeliveryDate();
+            lastSubscriptionId = chunk.getLastSubscriptionId();
+
+            if (chunk.getFetchedCount() > 0) {
+                result = result.add(OrderLaneResultDTO.builder()
+                        .fetchedCount(chunk.getFetchedCount())
+                        .processedCount(chunk.getProcessedCount())
+                        .errorCount(chunk.getErrorCount())
+                        .chunkCount(1)
+                        .build());
+                log.info("[f:runPartition] Partition {}/{} chunk {} done: {} subscriptions so far",
+                        partitionIndex, partitions, result.getChunkCount(), result.getFetchedCount());
+            }
+            // A chunk can come back short when locked rows no longer qualify after the wait, so
+            // only an empty chunk ends the partition
+        } while (chunk.getFetchedCount() > 0);
+
+        leaseCoordinator.completePartition(context.getRunDate(), partitionIndex, ownerId);
+        return result;
     }
 }
-
@@ -0,0 +1,134 @@
+package com.subscription.core.scheduler;
+
+import com.subscription.core.enums.SubscriptionStatus;
+import com.subscription.core.repository.SubscriptionRepository;
+import com.subscription.core.service.TablePartitionManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the monthly partitions of the orders ledger in place.
+ * Creates the partitions of the current month and the next months-ahead months so new orders
+ * never land in the default partition, and detaches partitions older than retention-months
+ * (dropping them when drop-detached is set). Runs on startup and daily; safe on every replica.
+ *
+ * Catch-up orders are dated in the past, possibly in months without a partition. Order runs
+ * therefore call {@link #preparePartitionsForDue} first, which creates the partitions of every
+ * month back to the earliest due delivery. Orders that still ended up in orders_default are
+ * moved into a partition of their month by the daily run.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderLedgerPartitionScheduler {
+
+    private static final String ORDERS_TABLE = "orders";
+    private static final int MAX_DEFAULT_MONTHS_PER_RUN = 120;
+
+    private final TablePartitionManager tablePartitionManager;
+    private final SubscriptionRepository subscriptionRepository;
+
+    @Value("${order-ledger.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${order-ledger.partitions.retention-months:13}")
+    private int retentionMonths;
+
+    @Value("${order-ledger.partitions.drop-detached:false}")
+    private boolean dropDetached;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    /**
+     * Creates upcoming and detaches expired partitions of the orders table.
+     * Runs daily at 12:30 AM.
+     */
+    @Scheduled(cron = "0 30 0 * * *")
+    public void maintainPartitions() {
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+
+        drainDefaultPartition();
+
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate from = currentMonth.plusMonths(i);
+            try {
+                tablePartitionManager.createPartition(ORDERS_TABLE, from, from.plusMonths(1));
+            } catch (Exception e) {
+                log.error("[f:maintainPartitions] Could not create orders partition for {}", from, e);
+            }
+        }
+
+        LocalDate retainFrom = currentMonth.minusMonths(retentionMonths);
+        for (Map.Entry<LocalDate, String> partition : tablePartitionManager.findPartitions(ORDERS_TABLE).entrySet()) {
+            if (!partition.getKey().isBefore(retainFrom)) {
+                break;
+            }
+            try {
+                tablePartitionManager.detachPartition(ORDERS_TABLE, partition.getValue());
+                if (dropDetached) {
+                    tablePartitionManager.dropTable(partition.getValue());
+                }
+            } catch (Exception e) {
+                log.error("[f:maintainPartitions] Could not retire orders partition {}", partition.getValue(), e);
+            }
+        }
+    }
+
+    /**
+     * Creates the partitions of every month from the earliest delivery due by the cutoff up to
+     * the current month, so the catch-up orders of a run land in partitions rather than in
+     * orders_default. A failure is logged and leaves the orders to the default partition.
+     *
+     * @param cutoff The run's due cutoff
+     */
+    public void preparePartitionsForDue(ZonedDateTime cutoff) {
+        try {
+            Optional<LocalDate> earliest = subscriptionRepository.findEarliestDueDeliveryDate(
+                    SubscriptionStatus.ACTIVE.name(), cutoff);
+            if (earliest.isEmpty()) {
+                return;
+            }
+            LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+            for (LocalDate from = earliest.get().withDayOfMonth(1); from.isBefore(currentMonth); from = from.plusMonths(1)) {
+                tablePartitionManager.createPartition(ORDERS_TABLE, from, from.plusMonths(1));
+            }
+        } catch (Exception e) {
+            log.error("[f:preparePartitionsForDue] Could not create orders partitions for catch-up months", e);
+        }
+    }
+
+    /**
+     * Gives every month that has orders in the default partition its own partition, moving the
+     * orders there, oldest month first.
+     */
+    private void drainDefaultPartition() {
+        for (int i = 0; i < MAX_DEFAULT_MONTHS_PER_RUN; i++) {
+            try {
+                Optional<LocalDate> day = tablePartitionManager.findEarliestDefaultRow(ORDERS_TABLE);
+                if (day.isEmpty()) {
+                    return;
+                }
+                LocalDate from = day.get().withDayOfMonth(1);
+                if (!tablePartitionManager.createPartition(ORDERS_TABLE, from, from.plusMonths(1))) {
+                    return;
+                }
+            } catch (Exception e) {
+                log.error("[f:drainDefaultPartition] Could not move orders out of the orders default partition", e);
+                return;
+            }
+        }
+    }
+}
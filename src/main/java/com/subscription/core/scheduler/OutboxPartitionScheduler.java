@@ -0,0 +1,107 @@
+package com.subscription.core.scheduler;
+
+import com.subscription.core.service.TablePartitionManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the daily partitions of the business_events outbox in place and purges old ones.
+ * Creates the partitions of today and the next days-ahead days so new events never land in
+ * the default partition. Events that did land in business_events_default (written while their
+ * day's partition was missing, e.g. before the first run after an outage) are moved into a
+ * partition of their day first, so they no longer block creating that partition and are
+ * retired with it. Partitions older than retention-days are detached (and dropped when
+ * drop-detached is set) once every event in them is published; a partition still holding
+ * unpublished events (including dead-lettered ones awaiting requeue) is kept and retried on
+ * the next run. Runs on startup and daily; safe on every replica.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxPartitionScheduler {
+
+    private static final String BUSINESS_EVENTS_TABLE = "business_events";
+    private static final int MAX_DEFAULT_DAYS_PER_RUN = 366;
+
+    private final TablePartitionManager tablePartitionManager;
+
+    @Value("${outbox.partitions.days-ahead:3}")
+    private int daysAhead;
+
+    @Value("${outbox.partitions.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${outbox.partitions.drop-detached:true}")
+    private boolean dropDetached;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    /**
+     * Creates upcoming and retires expired partitions of the business_events table.
+     * Runs daily at 12:45 AM.
+     */
+    @Scheduled(cron = "0 45 0 * * *")
+    public void maintainPartitions() {
+        LocalDate today = LocalDate.now();
+
+        drainDefaultPartition();
+
+        for (int i = 0; i <= daysAhead; i++) {
+            LocalDate from = today.plusDays(i);
+            try {
+                tablePartitionManager.createPartition(BUSINESS_EVENTS_TABLE, from, from.plusDays(1));
+            } catch (Exception e) {
+                log.error("[f:maintainPartitions] Could not create business_events partition for {}", from, e);
+            }
+        }
+
+        LocalDate retainFrom = today.minusDays(retentionDays);
+        for (Map.Entry<LocalDate, String> partition : tablePartitionManager.findPartitions(BUSINESS_EVENTS_TABLE).entrySet()) {
+            if (!partition.getKey().isBefore(retainFrom)) {
+                break;
+            }
+            try {
+                if (tablePartitionManager.hasRows(partition.getValue(), "published_at IS NULL")) {
+                    log.warn("[f:maintainPartitions] Keeping {}: it still holds unpublished events", partition.getValue());
+                    continue;
+                }
+                tablePartitionManager.detachPartition(BUSINESS_EVENTS_TABLE, partition.getValue());
+                if (dropDetached) {
+                    tablePartitionManager.dropTable(partition.getValue());
+                }
+            } catch (Exception e) {
+                log.error("[f:maintainPartitions] Could not retire business_events partition {}", partition.getValue(), e);
+            }
+        }
+    }
+
+    /**
+     * Gives every day that has events in the default partition its own partition, moving the
+     * events there, oldest day first.
+     */
+    private void drainDefaultPartition() {
+        for (int i = 0; i < MAX_DEFAULT_DAYS_PER_RUN; i++) {
+            try {
+                Optional<LocalDate> day = tablePartitionManager.findEarliestDefaultRow(BUSINESS_EVENTS_TABLE);
+                if (day.isEmpty() || !tablePartitionManager.createPartition(BUSINESS_EVENTS_TABLE, day.get(), day.get().plusDays(1))) {
+                    return;
+                }
+            } catch (Exception e) {
+                log.error("[f:drainDefaultPartition] Could not move events out of the business_events default partition", e);
+                return;
+            }
+        }
+    }
+}
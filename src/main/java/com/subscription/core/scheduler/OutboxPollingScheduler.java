@@ -1,20 +1,25 @@
 package com.subscription.core.scheduler;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.subscription.shared.dto.event.EventEnvelope;
-import com.subscription.core.entity.BusinessEvent;
-import com.subscription.core.repository.BusinessEventRepository;
+import com.subscription.core.service.OutboxFastPath;
+import com.subscription.core.service.OutboxRelayService;
+import com.subscription.core.service.OutboxWakeupSignal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
 
 /**
  * Outbox Polling Scheduler.
@@ -29,6 +34,23 @@ import java.util.Map;
  * - timestamp: When the event was created
  * - payload: The actual event data as nested JSON
  * 
+ * Each poll drains the outbox in bounded batches (outbox.relay.batch-size) leased with
+ * FOR UPDATE SKIP LOCKED, on outbox.relay.threads concurrent relay threads. Relays on other
+ * replicas claim disjoint batches the same way. Publishing is delegated to
+ * {@link OutboxRelayService}, which marks only broker-acknowledged events published.
+ * 
+ * With the after-commit {@link OutboxFastPath} enabled (the default), committed events are
+ * relayed directly and this scheduler only sweeps stragglers: events older than
+ * outbox.fast-path.straggler-age-ms that the fast path missed (queue overflow, crash, events
+ * held back behind an earlier event of their aggregate) and retries due after a backoff.
+ * Otherwise the dispatcher drains as soon as {@link OutboxWakeupSignal} fires (after a
+ * local commit or on a Postgres NOTIFY from any instance). Either way it also sweeps when no
+ * wakeup arrived for outbox.relay.sweep-interval-ms.
+ *
+ * Every drain of this instance runs on the single "outbox-dispatcher" thread, so wakeup drains
+ * and sweeps never overlap; concurrent claimers (relay threads, fast-path workers, other
+ * replicas) are kept in per-aggregate order by the claim query itself.
+ * 
  * This ensures guaranteed event delivery even if Kafka is temporarily down.
  */
 @Component
@@ -36,99 +58,105 @@ import java.util.Map;
 @Slf4j
 public class OutboxPollingScheduler {
 
-    private final BusinessEventRepository businessEventRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final OutboxRelayService outboxRelayService;
+    private final OutboxWakeupSignal wakeupSignal;
+    private final OutboxFastPath outboxFastPath;
 
-    private static final String USER_EVENTS_TOPIC = "user-events";
-    private static final String SUBSCRIPTION_EVENTS_TOPIC = "subscription-events";
-    private static final String PRODUCT_EVENTS_TOPIC = "product-events";
-    private static final String ORDER_EVENTS_TOPIC = "order-events";
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
 
-    @Scheduled(fixedDelay = 1000, initialDelay = 10000)
-    @Transactional
-    public void pollAndPublishEvents() {
-        try {
-            List<BusinessEvent> unpublishedEvents = businessEventRepository.findUnpublishedEventsWithLock();
+    @Value("${outbox.relay.threads:1}")
+    private int relayThreads;
 
-            if (unpublishedEvents.isEmpty()) {
-                return;
-            }
+    @Value("${outbox.relay.sweep-interval-ms:30000}")
+    private long sweepIntervalMs;
 
-            log.info("Found {} unpublished events to process", unpublishedEvents.size());
-
-            for (BusinessEvent event : unpublishedEvents) {
-                try {
-                    publishToKafka(event);
-                    markAsPublished(event);
-                    log.debug("Successfully published event: id={}, type={}",
-                            event.getEventId(), event.getEventType());
-                } catch (Exception e) {
-                    log.error("Failed to publish event: id={}, type={}, error={}",
-                            event.getEventId(), event.getEventType(), e.getMessage(), e);
-                }
-            }
+    @Value("${outbox.fast-path.straggler-age-ms:5000}")
+    private long stragglerAgeMs;
 
-            log.info("Processed {} events", unpublishedEvents.size());
+    private ExecutorService relayExecutor;
+    private volatile boolean dispatching;
+    private Thread dispatcherThread;
 
-        } catch (Exception e) {
-            log.error("Error in outbox polling scheduler", e);
+    @PostConstruct
+    void initRelayExecutor() {
+        if (relayThreads > 1) {
+            relayExecutor = Executors.newFixedThreadPool(relayThreads, new CustomizableThreadFactory("outbox-relay-"));
         }
     }
 
-    private void publishToKafka(BusinessEvent event) throws JsonProcessingException {
-        String topic = determineTopicFromEventType(event.getEventType());
-
-        Object payload = objectMapper.readValue(event.getPayload(), Map.class);
-
-        EventEnvelope envelope = EventEnvelope.builder()
-                .eventId(event.getEventId().toString())
-                .eventType(normalizeEventType(event.getEventType()))
-                .aggregateType(event.getAggregateType())
-                .aggregateId(event.getAggregateId())
-                .timestamp(event.getCreatedAt())
-                .payload(payload)
-                .build();
-
-        kafkaTemplate.send(topic, event.getAggregateId(), envelope);
-
-        log.debug("Published to Kafka: topic={}, eventId={}, eventType={}, aggregateId={}",
-                topic, envelope.getEventId(), envelope.getEventType(), envelope.getAggregateId());
+    @EventListener(ApplicationReadyEvent.class)
+    public void startDispatcher() {
+        dispatching = true;
+        dispatcherThread = Thread.ofPlatform().name("outbox-dispatcher").daemon().start(this::dispatch);
     }
 
-    private void markAsPublished(BusinessEvent event) {
-        event.setPublishedAt(Instant.now());
-        businessEventRepository.save(event);
+    @PreDestroy
+    void shutdownRelayExecutor() {
+        dispatching = false;
+        if (Objects.nonNull(dispatcherThread)) {
+            dispatcherThread.interrupt();
+        }
+        if (Objects.nonNull(relayExecutor)) {
+            relayExecutor.shutdown();
+        }
     }
 
-    private String normalizeEventType(String eventType) {
-        StringBuilder result = new StringBuilder();
-        for (int i = 0; i < eventType.length(); i++) {
-            char c = eventType.charAt(i);
-            if (Character.isUpperCase(c) && i > 0) {
-                result.append('_');
+    /**
+     * Drains on every wakeup, and as a sweep when the sweep interval passes without one.
+     * Wakeups raised during a drain are coalesced into one more drain.
+     */
+    private void dispatch() {
+        while (dispatching) {
+            pollAndPublishEvents();
+            try {
+                wakeupSignal.await(sweepIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             }
-            result.append(Character.toUpperCase(c));
         }
-        return result.toString();
     }
 
-    private String determineTopicFromEventType(String eventType) {
-        if (eventType.startsWith("User")) {
-            return USER_EVENTS_TOPIC;
-        } else if (eventType.startsWith("Subscription")) {
-            return SUBSCRIPTION_EVENTS_TOPIC;
-        } else if (eventType.startsWith("Product")) {
-            return PRODUCT_EVENTS_TOPIC;
-        } else if (eventType.startsWith("Order")) {
-            return ORDER_EVENTS_TOPIC;
+    private void pollAndPublishEvents() {
+        try {
+            long published = relayThreads <= 1 ? drain() : drainInParallel();
+
+            if (published > 0) {
+                log.info("Published {} events", published);
+            }
+
+        } catch (Exception e) {
+            log.error("Error in outbox polling scheduler", e);
         }
+    }
 
-        log.warn("Unknown event type: {}, defaulting to user-events topic", eventType);
-        return USER_EVENTS_TOPIC;
+    /**
+     * Relays full batches until one comes back short: the outbox is drained, the rest is
+     * claimed by other relays, or some events failed (they are retried on the next poll rather
+     * than re-claimed in a tight loop).
+     *
+     * @return Number of events published
+     */
+    private long drain() {
+        Duration minAge = outboxFastPath.isEnabled() ? Duration.ofMillis(stragglerAgeMs) : Duration.ZERO;
+        long published = 0;
+        int batch;
+        do {
+            batch = outboxRelayService.relayNextBatch(batchSize, minAge);
+            published += batch;
+        } while (batch == batchSize);
+        return published;
     }
 
-    public long getUnpublishedEventCount() {
-        return businessEventRepository.countByPublishedAtIsNull();
+    private long drainInParallel() {
+        List<CompletableFuture<Long>> futures = IntStream.range(0, relayThreads)
+                .mapToObj(i -> CompletableFuture.supplyAsync(this::drain, relayExecutor)
+                        .exceptionally(e -> {
+                            log.error("Outbox relay thread {} failed", i, e);
+                            return 0L;
+                        }))
+                .toList();
+        return futures.stream().mapToLong(CompletableFuture::join).sum();
     }
 }
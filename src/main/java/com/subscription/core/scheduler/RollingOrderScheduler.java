@@ -0,0 +1,220 @@
+package com.subscription.core.scheduler;
+
+import com.subscription.core.dto.OrderChunkResultDTO;
+import com.subscription.core.dto.OrderRunContextDTO;
+import com.subscription.core.entity.Slot;
+import com.subscription.core.enums.OrderCreationMode;
+import com.subscription.core.enums.SubscriptionStatus;
+import com.subscription.core.repository.SlotRepository;
+import com.subscription.core.repository.SubscriptionRepository;
+import com.subscription.core.service.OrderCreationService;
+import com.subscription.core.service.OrderRunMetrics;
+import com.subscription.core.service.OutboxBackpressureService;
+import com.subscription.core.service.RollingSlotRunCoordinator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Rolling intraday order generation (order-creation.mode=ROLLING).
+ * Instead of creating every order of the day at midnight, each slot that has due subscriptions
+ * is placed on a {@link SlotTimingWheel} at its start time minus a configurable lead time, and a
+ * per-minute tick generates that slot's orders when its bucket comes up. This spreads the load on
+ * Postgres, the outbox and Kafka over the day. Subscriptions whose slot was not on the wheel
+ * (unknown slot, created after the slot already fired, or a slot whose generation failed) are
+ * picked up by a sweep once the wheel is exhausted at the end of the day.
+ *
+ * Every replica runs the wheel, and each firing (slot and date, or the sweep of a date) is
+ * claimed through {@link RollingSlotRunCoordinator} first, so it runs on one instance. Sweeps
+ * are recorded per date: a sweep that failed is retried on the next tick, and one that never
+ * completed (e.g. the service was down at the end of the day) runs for the previous date after
+ * the date rolls over.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RollingOrderScheduler {
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final SlotRepository slotRepository;
+    private final OrderCreationService orderCreationService;
+    private final OrderRunMetrics orderRunMetrics;
+    private final OutboxBackpressureService outboxBackpressureService;
+    private final RollingSlotRunCoordinator rollingSlotRunCoordinator;
+    private final OrderLedgerPartitionScheduler orderLedgerPartitionScheduler;
+
+    @Value("${order-creation.mode:NIGHTLY}")
+    private OrderCreationMode mode;
+
+    @Value("${order-creation.rolling.lead-time-minutes:60}")
+    private int leadTimeMinutes;
+
+    @Value("${order-creation.chunk-size:500}")
+    private int chunkSize;
+
+    private SlotTimingWheel wheel;
+    private LocalDate wheelDate;
+    private boolean swept;
+    private boolean previousDaySwept;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initWheel() {
+        if (mode == OrderCreationMode.ROLLING) {
+            rebuildWheel(LocalDate.now());
+        }
+    }
+
+    /**
+     * Advances the wheel to the current minute and generates orders for every slot that fired.
+     */
+    @Scheduled(cron = "0 * * * * *")
+    public synchronized void tick() {
+        if (mode != OrderCreationMode.ROLLING) {
+            return;
+        }
+
+        ZonedDateTime now = ZonedDateTime.now();
+        if (!now.toLocalDate().equals(wheelDate)) {
+            rebuildWheel(now.toLocalDate());
+        }
+
+        if (!previousDaySwept) {
+            previousDaySwept = sweepIfPending(wheelDate.minusDays(1));
+        }
+
+        for (String slotId : wheel.advanceTo(now.getHour() * 60 + now.getMinute())) {
+            if (rollingSlotRunCoordinator.claim(wheelDate, slotId)) {
+                finishFiring(wheelDate, slotId, generateOrders(wheelDate, slotId));
+            }
+        }
+
+        if (wheel.isExhausted() && !swept) {
+            swept = sweepIfPending(wheelDate);
+        }
+    }
+
+    /**
+     * Runs the sweep of a date unless it already completed on some instance.
+     *
+     * @param date The date to sweep
+     * @return true once the sweep of the date is completed; false if it failed or another
+     *         instance is running it, so the next tick checks again
+     */
+    private boolean sweepIfPending(LocalDate date) {
+        if (rollingSlotRunCoordinator.isCompleted(date, RollingSlotRunCoordinator.SWEEP_SLOT_ID)) {
+            return true;
+        }
+        if (!rollingSlotRunCoordinator.claim(date, RollingSlotRunCoordinator.SWEEP_SLOT_ID)) {
+            return false;
+        }
+        log.info("[f:sweepIfPending] Sweeping remaining due subscriptions of {}", date);
+        boolean succeeded = generateOrders(date, null);
+        finishFiring(date, RollingSlotRunCoordinator.SWEEP_SLOT_ID, succeeded);
+        return succeeded;
+    }
+
+    private void finishFiring(LocalDate date, String slotId, boolean succeeded) {
+        if (succeeded) {
+            rollingSlotRunCoordinator.complete(date, slotId);
+        } else {
+            rollingSlotRunCoordinator.release(date, slotId);
+        }
+    }
+
+    /**
+     * Loads the slots that have subscriptions due on the given date onto a fresh wheel.
+     *
+     * @param date The day the wheel covers
+     */
+    private synchronized void rebuildWheel(LocalDate date) {
+        List<String> slotIds = subscriptionRepository.findDueSlotIds(SubscriptionStatus.ACTIVE.name(), endOfDay(date));
+        orderLedgerPartitionScheduler.preparePartitionsForDue(endOfDay(date));
+
+        SlotTimingWheel newWheel = new SlotTimingWheel();
+        List<Slot> slots = slotRepository.findAllById(slotIds);
+        for (Slot slot : slots) {
+            int startMinute = slot.getStartTime().getHour() * 60 + slot.getStartTime().getMinute();
+            newWheel.schedule(slot.getSlotId(), startMinute - leadTimeMinutes);
+        }
+
+        wheel = newWheel;
+        wheelDate = date;
+        swept = false;
+        previousDaySwept = false;
+
+        log.info("[f:rebuildWheel] Scheduled {} slots for {} with {} minutes lead time",
+                slots.size(), date, leadTimeMinutes);
+    }
+
+    /**
+     * Generates orders for every subscription of the slot that is due by the end of the date.
+     *
+     * @param date The date
+     * @param slotId The slot, or null for all slots
+     * @return false if generation failed part-way
+     */
+    private boolean generateOrders(LocalDate date, String slotId) {
+        ZonedDateTime now = ZonedDateTime.now();
+        OrderRunContextDTO context = OrderRunContextDTO.builder()
+                .runDate(date)
+                .startedAt(now)
+                .cutoff(endOfDay(date))
+                .partitionCount(1)
+                .chunkSize(chunkSize)
+                .slotId(slotId)
+                .build();
+
+        ZonedDateTime lastDeliveryDate = OrderCreationService.KEYSET_START_DATE;
+        String lastSubscriptionId = OrderCreationService.KEYSET_START_ID;
+        long processedCount = 0;
+        String firingId = Objects.isNull(slotId) ? RollingSlotRunCoordinator.SWEEP_SLOT_ID : slotId;
+
+        orderRunMetrics.runStarted(context);
+        try {
+            OrderChunkResultDTO chunk;
+            do {
+                outboxBackpressureService.awaitCapacity();
+                long startNanos = System.nanoTime();
+                chunk = orderCreationService.processDueChunk(context, 0, null, lastDeliveryDate, lastSubscriptionId);
+                orderRunMetrics.recordChunk(chunk, System.nanoTime() - startNanos);
+                lastDeliveryDate = chunk.getLastDeliveryDate();
+                lastSubscriptionId = chunk.getLastSubscriptionId();
+                processedCount += chunk.getProcessedCount();
+                if (!rollingSlotRunCoordinator.renew(date, firingId)) {
+                    throw new IllegalStateException("Lease on firing " + firingId + " of " + date + " was lost");
+                }
+            } while (chunk.getFetchedCount() > 0);
+        } catch (Exception e) {
+            orderRunMetrics.recordError(e);
+            log.error("[f:generateOrders] Order generation failed for slot {} on {}", slotId, date, e);
+            return false;
+        } finally {
+            orderRunMetrics.runFinished();
+        }
+
+        if (processedCount > 0 || Objects.isNull(slotId)) {
+            log.info("[f:generateOrders] Slot {} on {}: {} subscriptions processed",
+                    Objects.isNull(slotId) ? "sweep" : slotId, date, processedCount);
+        }
+        return true;
+    }
+
+    /**
+     * Due cutoff of a date: the next midnight, inclusive, the same cutoff as the nightly run.
+     * A subscription advanced to exactly that midnight during the date is not advanced again
+     * the same day, since the advance queries skip subscriptions already advanced for the date.
+     */
+    private ZonedDateTime endOfDay(LocalDate date) {
+        return date.plusDays(1).atStartOfDay(ZoneId.systemDefault());
+    }
+}
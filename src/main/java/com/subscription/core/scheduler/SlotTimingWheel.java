@@ -0,0 +1,58 @@
+package com.subscription.core.scheduler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Single-revolution timing wheel with one bucket per minute of the day.
+ * Slots are placed in the bucket of their fire minute; advancing the cursor returns every slot
+ * whose bucket was passed, so a late or missed tick still fires everything that is due.
+ * Not thread-safe; callers synchronize.
+ */
+class SlotTimingWheel {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final List<Set<String>> buckets = new ArrayList<>(MINUTES_PER_DAY);
+    private int cursor;
+
+    SlotTimingWheel() {
+        for (int i = 0; i < MINUTES_PER_DAY; i++) {
+            buckets.add(new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Places a slot in the bucket of the given minute, clamped to the wheel.
+     *
+     * @param slotId The slot ID
+     * @param minuteOfDay The minute the slot should fire
+     */
+    void schedule(String slotId, int minuteOfDay) {
+        int bucket = Math.max(0, Math.min(MINUTES_PER_DAY - 1, minuteOfDay));
+        buckets.get(Math.max(bucket, cursor)).add(slotId);
+    }
+
+    /**
+     * Moves the cursor past the given minute and drains every bucket in between.
+     *
+     * @param minuteOfDay The current minute of the day
+     * @return Slots due to fire, in fire order
+     */
+    List<String> advanceTo(int minuteOfDay) {
+        List<String> due = new ArrayList<>();
+        int last = Math.min(MINUTES_PER_DAY - 1, minuteOfDay);
+        for (; cursor <= last; cursor++) {
+            Set<String> bucket = buckets.get(cursor);
+            due.addAll(bucket);
+            bucket.clear();
+        }
+        return due;
+    }
+
+    boolean isExhausted() {
+        return cursor >= MINUTES_PER_DAY;
+    }
+}
@@ -0,0 +1,130 @@
+package com.subscription.core.service;
+
+import com.subscription.core.dto.DeliveryCalendarEntryDTO;
+import com.subscription.core.entity.DeliveryCalendarEntry;
+import com.subscription.core.entity.Subscription;
+import com.subscription.core.enums.SubscriptionFrequency;
+import com.subscription.core.enums.SubscriptionStatus;
+import com.subscription.core.repository.DeliveryCalendarRepository;
+import com.subscription.core.util.DeliveryScheduleUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maintains the materialized delivery calendar: the next delivery-calendar.horizon
+ * occurrences of every active subscription, indexed by (delivery_date, slot_id).
+ * Subscription changes rewrite the entries of that one subscription; the order run rolls the
+ * calendar of an advanced chunk forward with two set-based statements.
+ * All methods join the caller's transaction so the calendar commits with the subscription.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeliveryCalendarService {
+
+    private final DeliveryCalendarRepository deliveryCalendarRepository;
+
+    @Value("${delivery-calendar.horizon:8}")
+    private int horizon;
+
+    /**
+     * Rewrites the calendar of a subscription from its current state. Subscriptions that are
+     * not active have no upcoming deliveries.
+     *
+     * @param subscription The saved subscription
+     */
+    @Transactional
+    public void refresh(Subscription subscription) {
+        if (subscription.getStatus() != SubscriptionStatus.ACTIVE) {
+            remove(subscription.getSubscriptionId());
+            return;
+        }
+        refresh(subscription.getSubscriptionId(), subscription.getSlotId(),
+                subscription.getFrequency(), subscription.getNextDeliveryDate());
+    }
+
+    /**
+     * Rewrites the calendar of an active subscription starting at the given occurrence.
+     *
+     * @param subscriptionId The subscription ID
+     * @param slotId The delivery slot
+     * @param frequency The subscription frequency
+     * @param nextDeliveryDate The next occurrence
+     */
+    @Transactional
+    public void refresh(String subscriptionId, String slotId, SubscriptionFrequency frequency,
+                        ZonedDateTime nextDeliveryDate) {
+        deliveryCalendarRepository.deleteBySubscriptionId(subscriptionId);
+
+        if (Objects.isNull(nextDeliveryDate) || Objects.isNull(frequency)) {
+            return;
+        }
+
+        List<DeliveryCalendarEntry> entries = DeliveryScheduleUtil.nextOccurrences(nextDeliveryDate, frequency, horizon)
+                .stream()
+                .map(date -> DeliveryCalendarEntry.builder()
+                        .subscriptionId(subscriptionId)
+                        .slotId(slotId)
+                        .deliveryDate(date)
+                        .build())
+                .toList();
+        deliveryCalendarRepository.saveAll(entries);
+
+        log.debug("[f:refresh] Calendar of subscription {} rebuilt from {}", subscriptionId, nextDeliveryDate);
+    }
+
+    /**
+     * Removes every upcoming delivery of a subscription (paused or cancelled).
+     *
+     * @param subscriptionId The subscription ID
+     */
+    @Transactional
+    public void remove(String subscriptionId) {
+        deliveryCalendarRepository.deleteBySubscriptionId(subscriptionId);
+    }
+
+    /**
+     * Rolls the calendar of subscriptions advanced by one period forward: drops the delivered
+     * occurrence and appends one at the end of the horizon.
+     *
+     * @param subscriptionIds Subscriptions advanced by exactly one period
+     */
+    @Transactional
+    public void rollForward(List<String> subscriptionIds) {
+        if (subscriptionIds.isEmpty()) {
+            return;
+        }
+        deliveryCalendarRepository.deletePastOccurrences(subscriptionIds);
+        deliveryCalendarRepository.appendNextOccurrence(subscriptionIds);
+    }
+
+    /**
+     * Lists the deliveries scheduled on a day, optionally for one slot.
+     * Only days within the horizon of every subscription are complete.
+     *
+     * @param date The delivery day
+     * @param slotId The slot, or null for all slots
+     * @return Scheduled deliveries ordered by slot
+     */
+    @Transactional(readOnly = true)
+    public List<DeliveryCalendarEntryDTO> findDeliveries(LocalDate date, String slotId) {
+        ZoneId zone = ZoneId.systemDefault();
+        return deliveryCalendarRepository.findDeliveries(
+                        date.atStartOfDay(zone), date.plusDays(1).atStartOfDay(zone), slotId).stream()
+                .map(entry -> DeliveryCalendarEntryDTO.builder()
+                        .subscriptionId(entry.getSubscriptionId())
+                        .slotId(entry.getSlotId())
+                        .deliveryDate(entry.getDeliveryDate())
+                        .build())
+                .toList();
+    }
+}
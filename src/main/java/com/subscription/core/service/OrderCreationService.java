@@ -0,0 +1,354 @@
+package com.subscription.core.service;
+
+import com.subscription.core.dto.OrderChunkResultDTO;
+import com.subscription.core.dto.OrderRunContextDTO;
+import com.subscription.core.dto.event.SubscriptionDeliveriesMissedEvent;
+import com.subscription.core.enums.CatchUpMode;
+import com.subscription.core.enums.SubscriptionFrequency;
+import com.subscription.core.enums.SubscriptionStatus;
+import com.subscription.core.repository.OrderRecordRepository;
+import com.subscription.core.repository.SubscriptionRepository;
+import com.subscription.core.repository.projection.AdvancedSubscriptionProjection;
+import com.subscription.core.util.DeliveryScheduleUtil;
+import com.subscription.shared.dto.event.OrderCreatedEvent;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Creates orders for due subscriptions, one keyset chunk per transaction.
+ * Each chunk is selected and advanced with a single set-based UPDATE ... RETURNING, and the
+ * returned rows feed OrderCreatedEvent construction, so a chunk costs one round-trip for the
+ * subscriptions plus the outbox inserts. A chunk is atomic: if any order of the chunk cannot be
+ * written, no subscription of the chunk is advanced.
+ *
+ * Order IDs are name-based UUIDs of (subscriptionId, deliveryDate), and the partition watermark
+ * in the run ledger is moved in the same transaction as the chunk, so a run interrupted at any
+ * point resumes after the last committed chunk and a replayed order keeps its ID.
+ *
+ * With a catch-up mode enabled, a subscription that is still due after advancing one period
+ * (it missed several deliveries, e.g. after an outage) gets all of its missed occurrences handled
+ * in the same pass and is moved to its first occurrence after the run day in one write.
+ *
+ * The delivery calendar of every advanced subscription is rolled forward in the same transaction.
+ *
+ * With order-creation.consolidation.enabled, the run is partitioned by user and each chunk pulls
+ * in the remaining due subscriptions of its users; subscriptions of a user due on the same date
+ * at the same address and slot then produce a single consolidated order, while every
+ * subscription is still advanced individually.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderCreationService {
+
+    /**
+     * Keyset origin used for the first chunk of a run.
+     */
+    public static final ZonedDateTime KEYSET_START_DATE = ZonedDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneId.systemDefault());
+    public static final String KEYSET_START_ID = "";
+
+    private static final Comparator<AdvancedSubscriptionProjection> KEYSET_ORDER = Comparator
+            .comparing(AdvancedSubscriptionProjection::getDeliveryDate)
+            .thenComparing(AdvancedSubscriptionProjection::getSubscriptionId);
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final OutboxEventPublisher outboxEventPublisher;
+    private final OrderRecordRepository orderRecordRepository;
+    private final OrderRunLeaseCoordinator leaseCoordinator;
+    private final DeliveryCalendarService deliveryCalendarService;
+    private final OrderRunMetrics orderRunMetrics;
+    private final EntityManager entityManager;
+
+    @Value("${order-creation.catch-up.mode:DISABLED}")
+    private CatchUpMode catchUpMode;
+
+    @Value("${order-creation.consolidation.enabled:false}")
+    private boolean consolidationEnabled;
+
+    /**
+     * Advances the next chunk of due subscriptions after the given keyset position and writes
+     * one order event per advanced subscription, in its own transaction, then clears the
+     * persistence context. Only subscriptions hashing into the given partition are included, so
+     * concurrent callers working on different partitions never touch the same rows.
+     *
+     * @param run The run the chunk belongs to
+     * @param partitionIndex Partition to read, in [0, run.partitionCount)
+     * @param leaseOwnerId Owner of the partition lease; ignored for runs outside the run ledger
+     * @param lastDeliveryDate nextDeliveryDate of the last row of the previous chunk
+     * @param lastSubscriptionId subscriptionId of the last row of the previous chunk
+     * @return Counts for the chunk and the keyset cursor for the next one
+     * @throws IllegalStateException if the partition lease was lost; the chunk is rolled back
+     */
+    @Transactional
+    public OrderChunkResultDTO processDueChunk(OrderRunContextDTO run, int partitionIndex, String leaseOwnerId,
+                                              ZonedDateTime lastDeliveryDate, String lastSubscriptionId) {
+        List<AdvancedSubscriptionProjection> advanced = subscriptionRepository.advanceDueChunk(
+                SubscriptionStatus.ACTIVE.name(), run.getCutoff(), run.getRunDate(),
+                lastDeliveryDate, lastSubscriptionId, run.getPartitionCount(), partitionIndex,
+                consolidationEnabled, run.getSlotId(), run.getChunkSize(), ZonedDateTime.now());
+
+        if (advanced.isEmpty()) {
+            return OrderChunkResultDTO.builder()
+                    .lastDeliveryDate(lastDeliveryDate)
+                    .lastSubscriptionId(lastSubscriptionId)
+                    .build();
+        }
+
+        List<AdvancedSubscriptionProjection> rows = consolidationEnabled
+                ? withUserSiblings(advanced, run)
+                : advanced;
+
+        List<AdvancedSubscriptionProjection> advancedOnePeriod = new ArrayList<>(rows.size());
+        int orderCount = 0;
+        for (AdvancedSubscriptionProjection row : rows) {
+            if (needsCatchUp(row, run)) {
+                long startNanos = System.nanoTime();
+                orderCount += catchUp(row, toZoned(row.getDeliveryDate()), run);
+                orderRunMetrics.recordGroup(System.nanoTime() - startNanos);
+            } else {
+                advancedOnePeriod.add(row);
+                log.debug("[f:processDueChunk] Subscription: {}, new delivery date: {}, deliveries completed: {}",
+                        row.getSubscriptionId(), row.getNextDeliveryDate(), row.getDeliveriesCompleted());
+            }
+        }
+
+        for (List<AdvancedSubscriptionProjection> group : groupOrders(advancedOnePeriod)) {
+            long startNanos = System.nanoTime();
+            createOrder(group, toZoned(group.get(0).getDeliveryDate()), run.getStartedAt());
+            orderCount++;
+            orderRunMetrics.recordGroup(System.nanoTime() - startNanos);
+        }
+
+        deliveryCalendarService.rollForward(advancedOnePeriod.stream()
+                .map(AdvancedSubscriptionProjection::getSubscriptionId)
+                .toList());
+
+        AdvancedSubscriptionProjection last = advanced.stream().max(KEYSET_ORDER).orElseThrow();
+        ZonedDateTime chunkLastDeliveryDate = toZoned(last.getDeliveryDate());
+
+        if (Objects.nonNull(run.getRunId()) && !leaseCoordinator.recordChunk(run.getRunDate(), partitionIndex,
+                leaseOwnerId, chunkLastDeliveryDate, last.getSubscriptionId(), rows.size())) {
+            throw new IllegalStateException("Lease on partition " + partitionIndex + " of run "
+                    + run.getRunDate() + " was lost");
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        log.debug("[f:processDueChunk] Chunk done: {} subscriptions advanced, {} orders, last key ({}, {})",
+                rows.size(), orderCount, chunkLastDeliveryDate, last.getSubscriptionId());
+
+        return OrderChunkResultDTO.builder()
+                .fetchedCount(advanced.size())
+                .processedCount(rows.size())
+                .orderCount(orderCount)
+                .lastDeliveryDate(chunkLastDeliveryDate)
+                .lastSubscriptionId(last.getSubscriptionId())
+                .build();
+    }
+
+    /**
+     * Adds the other due subscriptions of the chunk's users to the chunk, so a household's
+     * deliveries are consolidated even when its subscriptions sort into different chunks.
+     * The keyset cursor is still derived from the chunk rows only.
+     *
+     * @param advanced Rows advanced by the chunk
+     * @param run The run
+     * @return Chunk rows followed by the sibling rows
+     */
+    private List<AdvancedSubscriptionProjection> withUserSiblings(List<AdvancedSubscriptionProjection> advanced,
+                                                                  OrderRunContextDTO run) {
+        Set<String> userIds = advanced.stream()
+                .map(AdvancedSubscriptionProjection::getUserId)
+                .collect(Collectors.toSet());
+        List<AdvancedSubscriptionProjection> siblings = subscriptionRepository.advanceUserSiblings(
+                SubscriptionStatus.ACTIVE.name(), run.getCutoff(), run.getRunDate(), userIds,
+                run.getSlotId(), ZonedDateTime.now());
+
+        if (siblings.isEmpty()) {
+            return advanced;
+        }
+        List<AdvancedSubscriptionProjection> rows = new ArrayList<>(advanced.size() + siblings.size());
+        rows.addAll(advanced);
+        rows.addAll(siblings);
+        return rows;
+    }
+
+    /**
+     * Groups rows into orders. With consolidation enabled, rows sharing user, delivery address,
+     * delivery date and slot form one order; otherwise every row is its own order.
+     *
+     * @param rows Rows advanced by one period
+     * @return Order groups, each sorted by subscriptionId
+     */
+    private Collection<List<AdvancedSubscriptionProjection>> groupOrders(List<AdvancedSubscriptionProjection> rows) {
+        if (!consolidationEnabled) {
+            return rows.stream().map(List::of).toList();
+        }
+        return rows.stream()
+                .sorted(Comparator.comparing(AdvancedSubscriptionProjection::getSubscriptionId))
+                .collect(Collectors.groupingBy(
+                        row -> new ConsolidationKey(row.getUserId(), row.getDeliveryAddressId(),
+                                row.getDeliveryDate(), row.getSlotId()),
+                        LinkedHashMap::new,
+                        Collectors.toList()))
+                .values();
+    }
+
+    /**
+     * Whether an advanced row is still due after the one-period advancement and catch-up is
+     * enabled, so its remaining missed occurrences are handled in this pass.
+     *
+     * @param row The advanced subscription row
+     * @param run The run
+     * @return true if the row goes through catch-up
+     */
+    private boolean needsCatchUp(AdvancedSubscriptionProjection row, OrderRunContextDTO run) {
+        return catchUpMode != CatchUpMode.DISABLED && !toZoned(row.getNextDeliveryDate()).isAfter(run.getCutoff());
+    }
+
+    /**
+     * Handles every occurrence of a stale subscription up to the end of the run day and moves
+     * it to its first future occurrence. In ORDERS mode each occurrence gets an order; in
+     * MISSED_EVENT mode only occurrences on the run day get orders and earlier ones are reported
+     * in a single SubscriptionDeliveriesMissed event.
+     *
+     * @param row The advanced subscription row
+     * @param deliveryDate The oldest due occurrence
+     * @param run The run
+     * @return Number of orders created
+     */
+    private int catchUp(AdvancedSubscriptionProjection row, ZonedDateTime deliveryDate, OrderRunContextDTO run) {
+        SubscriptionFrequency frequency = SubscriptionFrequency.valueOf(row.getFrequency());
+        List<ZonedDateTime> occurrences = DeliveryScheduleUtil.occurrencesUntil(deliveryDate, frequency, run.getCutoff());
+        ZonedDateTime firstFutureDate = DeliveryScheduleUtil.nextDeliveryDate(
+                occurrences.get(occurrences.size() - 1), frequency);
+        ZonedDateTime startOfRunDay = run.getRunDate().atStartOfDay(deliveryDate.getZone());
+
+        List<ZonedDateTime> orderDates = catchUpMode == CatchUpMode.ORDERS
+                ? occurrences
+                : occurrences.stream().filter(date -> !date.isBefore(startOfRunDay)).toList();
+        List<ZonedDateTime> missedDates = catchUpMode == CatchUpMode.ORDERS
+                ? List.of()
+                : occurrences.stream().filter(date -> date.isBefore(startOfRunDay)).toList();
+
+        orderDates.forEach(date -> createOrder(List.of(row), date, run.getStartedAt()));
+
+        if (!missedDates.isEmpty()) {
+            outboxEventPublisher.publish(
+                    "SubscriptionDeliveriesMissed",
+                    "Subscription",
+                    row.getSubscriptionId(),
+                    SubscriptionDeliveriesMissedEvent.builder()
+                            .subscriptionId(row.getSubscriptionId())
+                            .userId(row.getUserId())
+                            .slotId(row.getSlotId())
+                            .missedDeliveryDates(missedDates)
+                            .nextDeliveryDate(firstFutureDate)
+                            .detectedAt(run.getStartedAt())
+                            .build());
+        }
+
+        // advanceDueChunk already counted one delivery
+        subscriptionRepository.catchUp(row.getSubscriptionId(), firstFutureDate, orderDates.size() - 1,
+                ZonedDateTime.now());
+        deliveryCalendarService.refresh(row.getSubscriptionId(), row.getSlotId(), frequency, firstFutureDate);
+
+        log.info("[f:catchUp] Subscription {} caught up: {} orders, {} missed, next delivery {}",
+                row.getSubscriptionId(), orderDates.size(), missedDates.size(), firstFutureDate);
+        return orderDates.size();
+    }
+
+    /**
+     * Writes the order to the orders ledger and the OrderCreated outbox event for one delivery.
+     * A group of several subscriptions becomes one consolidated order with the merged productIds
+     * and the summed totalAmount; its ID is derived from all of its subscription IDs and the
+     * event carries the first one as subscriptionId.
+     *
+     * @param group Advanced subscription rows of the order, sorted by subscriptionId
+     * @param deliveryDate The delivery date of the order
+     * @param now Current timestamp
+     */
+    private void createOrder(List<AdvancedSubscriptionProjection> group, ZonedDateTime deliveryDate, ZonedDateTime now) {
+        AdvancedSubscriptionProjection primary = group.get(0);
+        boolean consolidated = group.size() > 1;
+
+        String subscriptionIds = consolidated
+                ? group.stream().map(AdvancedSubscriptionProjection::getSubscriptionId).collect(Collectors.joining(","))
+                : null;
+        String orderId = orderIdFor(consolidated ? subscriptionIds : primary.getSubscriptionId(),
+                deliveryDate.toLocalDateTime());
+        String productIds = consolidated
+                ? group.stream()
+                        .map(AdvancedSubscriptionProjection::getProductIds)
+                        .filter(StringUtils::hasText)
+                        .collect(Collectors.joining(","))
+                : primary.getProductIds();
+        BigDecimal totalAmount = consolidated
+                ? group.stream().map(AdvancedSubscriptionProjection::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add)
+                : primary.getTotalAmount();
+
+        log.info("[f:createOrder] Creating order for subscription: {}, orderId: {}",
+                consolidated ? subscriptionIds : primary.getSubscriptionId(), orderId);
+
+        OrderCreatedEvent orderEvent = OrderCreatedEvent.builder()
+                .orderId(orderId)
+                .subscriptionId(primary.getSubscriptionId())
+                .userId(primary.getUserId())
+                .deliveryAddressId(primary.getDeliveryAddressId())
+                .productIds(productIds)
+                .totalAmount(totalAmount)
+                .deliveryDate(deliveryDate)
+                .createdAt(now)
+                .build();
+
+        orderRecordRepository.insertIfAbsent(orderId, primary.getSubscriptionId(), subscriptionIds, primary.getUserId(),
+                primary.getSlotId(), primary.getDeliveryAddressId(), productIds, totalAmount, deliveryDate, now);
+
+        outboxEventPublisher.publish(
+                "OrderCreated",
+                "Order",
+                orderId,
+                orderEvent);
+    }
+
+    /**
+     * Derives the order ID from the subscription and its delivery date, so creating the same
+     * delivery twice yields the same ID.
+     *
+     * @param subscriptionId The subscription ID
+     * @param deliveryDate The delivery date the order is created for
+     * @return Name-based (version 3) UUID string
+     */
+    public static String orderIdFor(String subscriptionId, LocalDateTime deliveryDate) {
+        String name = subscriptionId + "|" + deliveryDate;
+        return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private ZonedDateTime toZoned(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault());
+    }
+
+    private record ConsolidationKey(String userId, String deliveryAddressId, LocalDateTime deliveryDate, String slotId) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.subscription.core.service;
+
+import com.subscription.core.dto.OrderForecastResponseDTO;
+import com.subscription.core.dto.ProductOrderForecastDTO;
+import com.subscription.core.dto.SlotOrderForecastDTO;
+import com.subscription.core.enums.SubscriptionStatus;
+import com.subscription.core.repository.SubscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Read-only forecast of the orders the order run will create for a delivery day.
+ * Works entirely on GROUP BY aggregates over subscriptions joined to slots; no entity is
+ * loaded and nothing is written, so it is safe to call at any time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderForecastService {
+
+    private final SubscriptionRepository subscriptionRepository;
+
+    /**
+     * Forecasts order counts and amounts per zone/slot and per product for a delivery day.
+     * Subscriptions that are already overdue are only counted for the next run day (tomorrow),
+     * since that run picks them up and moves them on.
+     *
+     * @param targetDate The delivery day
+     * @return Forecast aggregates for the day
+     */
+    @Transactional(readOnly = true)
+    public OrderForecastResponseDTO forecast(LocalDate targetDate) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate nextRunDate = LocalDate.now().plusDays(1);
+        ZonedDateTime dayEnd = targetDate.plusDays(1).atStartOfDay(zone);
+        ZonedDateTime staleBefore = targetDate.equals(nextRunDate)
+                ? targetDate.atStartOfDay(zone)
+                : OrderCreationService.KEYSET_START_DATE;
+        String status = SubscriptionStatus.ACTIVE.name();
+
+        List<SlotOrderForecastDTO> slots = subscriptionRepository
+                .forecastOrdersBySlot(status, targetDate, dayEnd, staleBefore).stream()
+                .map(row -> SlotOrderForecastDTO.builder()
+                        .zoneId(row.getZoneId())
+                        .slotId(row.getSlotId())
+                        .startTime(row.getStartTime())
+                        .orderCount(row.getOrderCount())
+                        .totalAmount(Objects.requireNonNullElse(row.getTotalAmount(), BigDecimal.ZERO))
+                        .build())
+                .toList();
+
+        List<ProductOrderForecastDTO> products = subscriptionRepository
+                .forecastOrdersByProduct(status, targetDate, dayEnd, staleBefore).stream()
+                .map(row -> ProductOrderForecastDTO.builder()
+                        .productId(row.getProductId())
+                        .orderCount(row.getOrderCount())
+                        .build())
+                .toList();
+
+        long totalOrders = slots.stream().mapToLong(SlotOrderForecastDTO::getOrderCount).sum();
+        BigDecimal totalAmount = slots.stream()
+                .map(SlotOrderForecastDTO::getTotalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        log.info("[f:forecast] Forecast for {}: {} orders in {} slots, total amount {}",
+                targetDate, totalOrders, slots.size(), totalAmount);
+
+        return OrderForecastResponseDTO.builder()
+                .targetDate(targetDate)
+                .totalOrders(totalOrders)
+                .totalAmount(totalAmount)
+                .slots(slots)
+                .products(products)
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.subscription.core.service;
+
+import com.subscription.core.dto.OrderResponseDTO;
+import com.subscription.core.entity.OrderRecord;
+import com.subscription.core.repository.OrderRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Read side of the orders ledger.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderLedgerService {
+
+    private final OrderRecordRepository orderRecordRepository;
+
+    /**
+     * Gets the orders of a slot for a delivery day.
+     *
+     * @param slotId The slot ID
+     * @param date The delivery day
+     * @return Orders ordered by delivery time
+     */
+    @Transactional(readOnly = true)
+    public List<OrderResponseDTO> getSlotOrders(String slotId, LocalDate date) {
+        ZoneId zone = ZoneId.systemDefault();
+        return orderRecordRepository.findBySlotAndDay(slotId, date.atStartOfDay(zone), date.plusDays(1).atStartOfDay(zone))
+                .stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * Gets all orders of a user, newest delivery first.
+     *
+     * @param userId The user ID
+     * @return Orders of the user
+     */
+    @Transactional(readOnly = true)
+    public List<OrderResponseDTO> getUserOrders(String userId) {
+        return orderRecordRepository.findByUserIdOrderByDeliveryDateDesc(userId).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    private OrderResponseDTO toDto(OrderRecord order) {
+        return OrderResponseDTO.builder()
+                .orderId(order.getOrderId())
+                .subscriptionId(order.getSubscriptionId())
+                .subscriptionIds(order.getSubscriptionIds())
+                .userId(order.getUserId())
+                .slotId(order.getSlotId())
+                .deliveryAddressId(order.getDeliveryAddressId())
+                .productIds(order.getProductIds())
+                .totalAmount(order.getTotalAmount())
+                .deliveryDate(order.getDeliveryDate())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package com.subscription.core.service;
+
+import com.subscription.core.entity.OrderRunPartitionLease;
+import com.subscription.core.repository.OrderRunPartitionLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Coordinates the nightly order run across replicas.
+ * The due subscriptions of a run date are split into a fixed number of hash partitions;
+ * every instance claims partitions through time-limited leases in order_run_partition_leases,
+ * so replicas process disjoint partitions and a partition held by a dead instance is
+ * re-taken once its lease expires. Each lease also carries the keyset watermark of the last
+ * committed chunk of its partition, so whoever takes it over resumes right after that chunk.
+ *
+ * Leases are owned per lane (instance id plus lane index), so lanes of one instance never
+ * share a partition. A failed chunk keeps the lease for a doubling retry delay before any lane
+ * may take the partition again; after order-creation.lease.max-errors failures the partition is
+ * marked FAILED and left for investigation.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderRunLeaseCoordinator {
+
+    private final OrderRunPartitionLeaseRepository leaseRepository;
+
+    @Value("${order-creation.instance-id:}")
+    private String instanceId;
+
+    @Value("${order-creation.lease.ttl-seconds:300}")
+    private int leaseTtlSeconds;
+
+    @Value("${order-creation.lease.retry-delay-seconds:60}")
+    private int retryDelaySeconds;
+
+    @Value("${order-creation.lease.max-errors:5}")
+    private int maxErrors;
+
+    @PostConstruct
+    void initInstanceId() {
+        if (!StringUtils.hasText(instanceId)) {
+            instanceId = resolveHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        log.info("[f:initInstanceId] Order run lease owner id: {}", instanceId);
+    }
+
+    /**
+     * Creates the partition lease rows for a run. Safe to call from every instance.
+     *
+     * @param runId The run id from the run ledger
+     * @param runDate The run date
+     * @param partitionCount Number of hash partitions, identical on every instance
+     */
+    @Transactional
+    public void seedPartitions(String runId, LocalDate runDate, int partitionCount) {
+        int created = leaseRepository.seedPartitions(runId, runDate, partitionCount);
+        if (created > 0) {
+            log.info("[f:seedPartitions] Created {} partition leases for run {}", created, runDate);
+        }
+    }
+
+    /**
+     * Lease owner id of one lane of this instance.
+     *
+     * @param lane Lane index
+     * @return Owner id, stable across restarts when order-creation.instance-id is set
+     */
+    public String laneOwnerId(int lane) {
+        return instanceId + "-lane-" + lane;
+    }
+
+    /**
+     * Claims the next pending partition whose lease is free or expired.
+     *
+     * @param runDate The run date
+     * @param ownerId Owner id of the claiming lane
+     * @param reclaimOwn Whether a partition still leased to ownerId may be taken back; only for
+     *                   the first claim of a lane resuming an interrupted run
+     * @return The claimed lease with its watermark, if any
+     */
+    @Transactional
+    public Optional<OrderRunPartitionLease> claimNextPartition(LocalDate runDate, String ownerId, boolean reclaimOwn) {
+        Optional<OrderRunPartitionLease> lease = leaseRepository.claimNextPartition(runDate, ownerId, leaseTtlSeconds, reclaimOwn);
+        lease.ifPresent(l -> log.info("[f:claimNextPartition] {} claimed partition {} of run {}, watermark ({}, {})",
+                ownerId, l.getPartitionIndex(), runDate, l.getLastDeliveryDate(), l.getLastSubscriptionId()));
+        return lease;
+    }
+
+    /**
+     * Moves the watermark of a partition past a processed chunk and extends the lease.
+     * Joins the caller's transaction so the watermark commits together with the chunk.
+     *
+     * @return false if the lease expired and was taken by another instance
+     */
+    @Transactional
+    public boolean recordChunk(LocalDate runDate, int partitionIndex, String ownerId, ZonedDateTime lastDeliveryDate,
+                               String lastSubscriptionId, int processed) {
+        return leaseRepository.recordChunk(runDate, partitionIndex, ownerId, leaseTtlSeconds,
+                lastDeliveryDate, lastSubscriptionId, processed) > 0;
+    }
+
+    /**
+     * Records a failed chunk and holds the partition back for the retry delay.
+     */
+    @Transactional
+    public void recordError(LocalDate runDate, int partitionIndex, String ownerId) {
+        if (leaseRepository.recordError(runDate, partitionIndex, ownerId, retryDelaySeconds, maxErrors) > 0) {
+            log.warn("[f:recordError] {} recorded an error on partition {} of run {}", ownerId, partitionIndex, runDate);
+        }
+    }
+
+    @Transactional
+    public void completePartition(LocalDate runDate, int partitionIndex, String ownerId) {
+        leaseRepository.completePartition(runDate, partitionIndex, ownerId);
+        log.info("[f:completePartition] {} completed partition {} of run {}", ownerId, partitionIndex, runDate);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isRunComplete(LocalDate runDate) {
+        return leaseRepository.countIncompletePartitions(runDate) == 0;
+    }
+
+    @Transactional(readOnly = true)
+    public long countFailedPartitions(LocalDate runDate) {
+        return leaseRepository.countFailedPartitions(runDate);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "core-service";
+        }
+    }
+}
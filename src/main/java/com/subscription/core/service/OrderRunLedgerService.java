@@ -0,0 +1,73 @@
+package com.subscription.core.service;
+
+import com.subscription.core.entity.OrderRun;
+import com.subscription.core.enums.OrderRunStatus;
+import com.subscription.core.repository.OrderRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Run ledger of the nightly order run (order_runs).
+ * A run date has exactly one run; starting a run that already exists returns the existing
+ * entry so a restarted or late instance joins it with the original run id and start time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderRunLedgerService {
+
+    private final OrderRunRepository orderRunRepository;
+    private final OrderRunLeaseCoordinator leaseCoordinator;
+
+    /**
+     * Registers the run for the date, or returns the run already registered for it.
+     *
+     * @param runDate The run date
+     * @param now Start time used if this call creates the run
+     * @return The ledger entry of the run
+     */
+    @Transactional
+    public OrderRun startOrJoin(LocalDate runDate, ZonedDateTime now) {
+        if (orderRunRepository.startRun(UUID.randomUUID().toString(), runDate, now) > 0) {
+            log.info("[f:startOrJoin] Started order run for {}", runDate);
+        }
+        return orderRunRepository.findByRunDate(runDate)
+                .orElseThrow(() -> new IllegalStateException("Order run missing for " + runDate));
+    }
+
+    /**
+     * Finds the run of the given date if it was started but never completed.
+     *
+     * @param runDate The run date
+     * @return The interrupted run, if any
+     */
+    @Transactional(readOnly = true)
+    public Optional<OrderRun> findInterruptedRun(LocalDate runDate) {
+        return orderRunRepository.findByRunDateAndStatus(runDate, OrderRunStatus.RUNNING);
+    }
+
+    /**
+     * Marks the run completed once every partition is completed or has failed.
+     *
+     * @param run The run
+     */
+    @Transactional
+    public void completeIfFinished(OrderRun run) {
+        if (leaseCoordinator.isRunComplete(run.getRunDate()) && orderRunRepository.completeRun(run.getRunId()) > 0) {
+            long failed = leaseCoordinator.countFailedPartitions(run.getRunDate());
+            if (failed > 0) {
+                log.error("[f:completeIfFinished] Order run {} for {} completed with {} failed partitions",
+                        run.getRunId(), run.getRunDate(), failed);
+                return;
+            }
+            log.info("[f:completeIfFinished] Order run {} for {} completed", run.getRunId(), run.getRunDate());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.subscription.core.service;
+
+import com.subscription.core.dto.OrderChunkResultDTO;
+import com.subscription.core.dto.OrderRunContextDTO;
+import com.subscription.core.dto.OrderRunProgressDTO;
+import com.subscription.core.enums.SubscriptionStatus;
+import com.subscription.core.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Micrometer instrumentation and live progress of the order run.
+ *
+ * Meters:
+ * - order.run.group.latency: time to create the order(s) of one order group, i.e. of a
+ *   consolidated group of subscriptions or of one subscription catching up (histogram)
+ * - order.run.chunk.duration: time per chunk, including the set-based advance (histogram)
+ * - order.run.subscriptions.processed / order.run.orders.created: counters, rate() gives throughput
+ * - order.run.errors: failed chunks, tagged with the exception type
+ * - order.run.remaining.due: due subscriptions not yet advanced by the current run
+ *
+ * The remaining-due gauge is refreshed on a fixed delay while a run is active instead of on
+ * every scrape, so scraping never queries the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderRunMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final SubscriptionRepository subscriptionRepository;
+
+    private final AtomicReference<OrderRunContextDTO> currentRun = new AtomicReference<>();
+    private final AtomicLong remainingDue = new AtomicLong();
+    private final LongAdder processedCount = new LongAdder();
+    private final LongAdder orderCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder chunkCount = new LongAdder();
+
+    private Timer groupTimer;
+    private Timer chunkTimer;
+    private Counter subscriptionsCounter;
+    private Counter ordersCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        groupTimer = Timer.builder("order.run.group.latency")
+                .description("Time to create the order(s) of one order group of due subscriptions")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        chunkTimer = Timer.builder("order.run.chunk.duration")
+                .description("Time to advance and process one chunk of due subscriptions")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        subscriptionsCounter = Counter.builder("order.run.subscriptions.processed")
+                .description("Due subscriptions advanced by the order run")
+                .register(meterRegistry);
+        ordersCounter = Counter.builder("order.run.orders.created")
+                .description("Orders created by the order run")
+                .register(meterRegistry);
+        Gauge.builder("order.run.remaining.due", remainingDue, AtomicLong::get)
+                .description("Due subscriptions not yet processed by the current run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts tracking a run on this instance.
+     *
+     * @param run The run context
+     */
+    public void runStarted(OrderRunContextDTO run) {
+        processedCount.reset();
+        orderCount.reset();
+        errorCount.reset();
+        chunkCount.reset();
+        currentRun.set(run);
+        refreshRemainingDue();
+    }
+
+    public void runFinished() {
+        refreshRemainingDue();
+        currentRun.set(null);
+    }
+
+    public void recordGroup(long nanos) {
+        groupTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a committed chunk.
+     *
+     * @param chunk The chunk result
+     * @param nanos Wall time of the chunk
+     */
+    public void recordChunk(OrderChunkResultDTO chunk, long nanos) {
+        if (chunk.getFetchedCount() == 0) {
+            return;
+        }
+        chunkTimer.record(nanos, TimeUnit.NANOSECONDS);
+        subscriptionsCounter.increment(chunk.getProcessedCount());
+        ordersCounter.increment(chunk.getOrderCount());
+        processedCount.add(chunk.getProcessedCount());
+        orderCount.add(chunk.getOrderCount());
+        chunkCount.increment();
+    }
+
+    /**
+     * Records a failed chunk, tagged with the exception type.
+     *
+     * @param e The failure
+     */
+    public void recordError(Exception e) {
+        meterRegistry.counter("order.run.errors", "exception", e.getClass().getSimpleName()).increment();
+        errorCount.increment();
+    }
+
+    /**
+     * Refreshes the remaining-due gauge while a run is active.
+     */
+    @Scheduled(fixedDelayString = "${order-creation.metrics.remaining-refresh-ms:15000}")
+    public void refreshRemainingDue() {
+        OrderRunContextDTO run = currentRun.get();
+        if (Objects.isNull(run)) {
+            return;
+        }
+        try {
+            remainingDue.set(subscriptionRepository.countRemainingDue(
+                    SubscriptionStatus.ACTIVE.name(), run.getCutoff(), run.getRunDate()));
+        } catch (Exception e) {
+            log.warn("[f:refreshRemainingDue] Could not refresh remaining due subscriptions: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Snapshot of the run on this instance; partition fields are filled in by the caller.
+     *
+     * @return Progress of the current run, or of the last one if none is running
+     */
+    public OrderRunProgressDTO snapshot() {
+        OrderRunContextDTO run = currentRun.get();
+        OrderRunProgressDTO.OrderRunProgressDTOBuilder progress = OrderRunProgressDTO.builder()
+                .running(Objects.nonNull(run))
+                .processedCount(processedCount.sum())
+                .orderCount(orderCount.sum())
+                .errorCount(errorCount.sum())
+                .chunkCount(chunkCount.sum())
+                .remainingDue(remainingDue.get());
+
+        if (Objects.nonNull(run)) {
+            long elapsedSeconds = Math.max(1, Duration.between(run.getStartedAt(), ZonedDateTime.now()).toSeconds());
+            progress.runId(run.getRunId())
+                    .runDate(run.getRunDate())
+                    .startedAt(run.getStartedAt())
+                    .elapsedSeconds(elapsedSeconds)
+                    .ordersPerSecond((double) orderCount.sum() / elapsedSeconds);
+        }
+        return progress.build();
+    }
+
+    public OrderRunContextDTO getCurrentRun() {
+        return currentRun.get();
+    }
+}
@@ -0,0 +1,66 @@
+package com.subscription.core.service;
+
+import com.subscription.core.dto.OutboxEventDTO;
+import com.subscription.core.entity.BusinessEvent;
+import com.subscription.core.repository.BusinessEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Operations on the outbox for administrators: inspecting and requeueing dead-lettered events.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxAdminService {
+
+    private final BusinessEventRepository businessEventRepository;
+
+    /**
+     * Lists dead-lettered events, most recent first.
+     *
+     * @param limit Maximum number of events
+     * @return The dead-lettered events with their last error
+     */
+    @Transactional(readOnly = true)
+    public List<OutboxEventDTO> getDeadLetters(int limit) {
+        return businessEventRepository.findDeadLettered(limit).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * Requeues dead-lettered events; they are relayed again by the next relay pass.
+     *
+     * @param eventIds Events to requeue, or empty to requeue every dead-lettered event
+     * @return Success message with the number of requeued events
+     */
+    @Transactional
+    public String requeueDeadLetters(List<UUID> eventIds) {
+        int requeued = eventIds.isEmpty()
+                ? businessEventRepository.requeueAllDeadLettered()
+                : businessEventRepository.requeueDeadLettered(eventIds);
+        log.info("[f:requeueDeadLetters] Requeued {} dead-lettered events", requeued);
+        return "Requeued " + requeued + " dead-lettered events";
+    }
+
+    private OutboxEventDTO toDto(BusinessEvent event) {
+        return OutboxEventDTO.builder()
+                .eventId(event.getEventId())
+                .eventType(event.getEventType())
+                .aggregateType(event.getAggregateType())
+                .aggregateId(event.getAggregateId())
+                .createdAt(event.getCreatedAt())
+                .publishedAt(event.getPublishedAt())
+                .attemptCount(event.getAttemptCount())
+                .nextAttemptAt(event.getNextAttemptAt())
+                .lastError(event.getLastError())
+                .deadLetteredAt(event.getDeadLetteredAt())
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.subscription.core.service;
+
+import com.subscription.core.repository.BusinessEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles bulk order creation against the outbox.
+ * Order runs write one business_events row per order far faster than the outbox relay drains
+ * them, and every other event type queues behind that backlog. Before each chunk the run asks
+ * for capacity; this service samples the outbox (bounded backlog count, age of the oldest
+ * unpublished event and recent drain rate) and pauses the caller while the estimated outbox lag
+ * exceeds order-creation.backpressure.max-lag-seconds.
+ *
+ * Samples are cached for sample-interval-ms and shared by all lanes, so the sampling cost does
+ * not grow with parallelism. A caller never waits longer than max-wait-ms per chunk; keep it
+ * well below order-creation.lease.ttl-seconds so a throttled lane keeps its partition lease.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxBackpressureService {
+
+    private static final long MIN_PAUSE_MS = 100;
+    private static final Duration RATE_CREATED_LOOKBACK = Duration.ofDays(1);
+
+    private final BusinessEventRepository businessEventRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${order-creation.backpressure.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order-creation.backpressure.max-lag-seconds:30}")
+    private long maxLagSeconds;
+
+    @Value("${order-creation.backpressure.backlog-cap:100000}")
+    private int backlogCap;
+
+    @Value("${order-creation.backpressure.rate-window-seconds:10}")
+    private long rateWindowSeconds;
+
+    @Value("${order-creation.backpressure.sample-interval-ms:1000}")
+    private long sampleIntervalMs;
+
+    @Value("${order-creation.backpressure.max-pause-ms:5000}")
+    private long maxPauseMs;
+
+    @Value("${order-creation.backpressure.max-wait-ms:120000}")
+    private long maxWaitMs;
+
+    private Timer waitTimer;
+
+    private OutboxLoad lastSample;
+
+    @PostConstruct
+    void registerMeters() {
+        waitTimer = Timer.builder("order.run.backpressure.wait")
+                .description("Time order creation was paused waiting for the outbox to drain")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Blocks until the estimated outbox lag is within the configured bound, or max-wait-ms
+     * has passed.
+     */
+    public void awaitCapacity() {
+        if (!enabled) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+
+        while (true) {
+            OutboxLoad load = sample();
+            double excessSeconds = load.estimatedLagSeconds() - maxLagSeconds;
+            if (excessSeconds <= 0) {
+                break;
+            }
+
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+            if (remainingMs <= 0) {
+                log.warn("[f:awaitCapacity] Outbox still lagging after {} ms (backlog {}, drain {}/s, lag {}s); continuing",
+                        maxWaitMs, load.backlog(), String.format("%.1f", load.drainPerSecond()),
+                        String.format("%.1f", load.estimatedLagSeconds()));
+                break;
+            }
+
+            long pauseMs = Math.min(remainingMs, Math.max(MIN_PAUSE_MS, Math.min(maxPauseMs, (long) (excessSeconds * 1000))));
+            log.debug("[f:awaitCapacity] Outbox backlog {}, drain {}/s, lag {}s; pausing {} ms",
+                    load.backlog(), load.drainPerSecond(), load.estimatedLagSeconds(), pauseMs);
+
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        long waitedNanos = System.nanoTime() - startNanos;
+        if (waitedNanos > TimeUnit.MILLISECONDS.toNanos(MIN_PAUSE_MS)) {
+            waitTimer.record(waitedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns the cached outbox sample, refreshing it when older than sample-interval-ms.
+     */
+    private synchronized OutboxLoad sample() {
+        Instant now = Instant.now();
+        if (Objects.nonNull(lastSample) && Duration.between(lastSample.sampledAt(), now).toMillis() < sampleIntervalMs) {
+            return lastSample;
+        }
+
+        long backlog = businessEventRepository.countUnpublishedUpTo(backlogCap);
+        double oldestAgeSeconds = backlog == 0 ? 0 : businessEventRepository.findOldestUnpublishedCreatedAt()
+                .map(createdAt -> Duration.between(createdAt, now).toMillis() / 1000.0)
+                .orElse(0.0);
+        // Events older than the lookback that were published within the window are not counted;
+        // that only happens when the head is at least that old, so the head age dominates the lag.
+        double drainPerSecond = (double) businessEventRepository.countPublishedSince(
+                now.minusSeconds(rateWindowSeconds), now.minus(RATE_CREATED_LOOKBACK)) / rateWindowSeconds;
+
+        lastSample = new OutboxLoad(now, backlog, oldestAgeSeconds, drainPerSecond);
+        return lastSample;
+    }
+
+    /**
+     * One sample of the outbox.
+     * The estimated lag of an event written now is the larger of how long the head of the queue
+     * has been waiting and how long the current backlog takes to drain at the recent rate.
+     */
+    private record OutboxLoad(Instant sampledAt, long backlog, double oldestAgeSeconds, double drainPerSecond) {
+
+        double estimatedLagSeconds() {
+            if (backlog == 0) {
+                return 0;
+            }
+            if (drainPerSecond <= 0) {
+                return oldestAgeSeconds;
+            }
+            return Math.max(oldestAgeSeconds, backlog / drainPerSecond);
+        }
+    }
+}
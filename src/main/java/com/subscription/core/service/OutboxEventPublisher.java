@@ -1,20 +1,34 @@
 package com.subscription.core.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.subscription.core.codec.EventCodecs;
 import com.subscription.core.entity.BusinessEvent;
 import com.subscription.core.repository.BusinessEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Transactional Outbox Publisher.
  * Instead of sending events directly to Kafka, this service saves them to the
  * database
  * in the same transaction as the business logic. A background scheduler will
- * pick them up later.
+ * pick them up later. Payloads are encoded with the codec selected by outbox.codec.
+ *
+ * The first event of a transaction registers a synchronization for the whole transaction.
+ * With the fast path enabled it hands the committed events to {@link OutboxFastPath} after
+ * commit, which relays them right away. Otherwise it issues a NOTIFY on the outbox channel
+ * just before commit (delivered by Postgres only if the transaction commits) and raises the
+ * in-JVM {@link OutboxWakeupSignal} after commit, so relays drain instead of waiting for the
+ * next sweep.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,7 +36,13 @@ import org.springframework.transaction.annotation.Transactional;
 public class OutboxEventPublisher {
 
     private final BusinessEventRepository businessEventRepository;
-    private final ObjectMapper objectMapper;
+    private final EventCodecs eventCodecs;
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxWakeupSignal wakeupSignal;
+    private final OutboxFastPath outboxFastPath;
+
+    @Value("${outbox.notify.enabled:true}")
+    private boolean notifyEnabled;
 
     /**
      * Publish an event to the outbox (business_events table).
@@ -37,26 +57,66 @@ public class OutboxEventPublisher {
     @Transactional
     public void publish(String eventType, String aggregateType, String aggregateId, Object event) {
         try {
-            String payload = objectMapper.writeValueAsString(event);
-
             BusinessEvent businessEvent = new BusinessEvent(
                     eventType,
                     aggregateType,
-                    aggregateId,
-                    payload);
+                    aggregateId);
+            eventCodecs.publishing().writePayload(businessEvent, event);
 
             businessEventRepository.save(businessEvent);
+            registerAfterCommit(businessEvent);
 
             log.debug("Event saved to outbox: type={}, aggregateType={}, aggregateId={}",
                     eventType, aggregateType, aggregateId);
 
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize event to JSON: eventType={}, aggregateId={}",
+        } catch (IOException e) {
+            log.error("Failed to serialize event: eventType={}, aggregateId={}",
                     eventType, aggregateId, e);
             throw new RuntimeException("Failed to publish event to outbox", e);
         }
     }
 
+    /**
+     * Collects the event into its transaction's list and registers the synchronization once per
+     * transaction, however many events it publishes.
+     */
+    @SuppressWarnings("unchecked")
+    private void registerAfterCommit(BusinessEvent businessEvent) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        OutboxFastPath.QueuedEvent queued = new OutboxFastPath.QueuedEvent(businessEvent.getEventId(), businessEvent.getCreatedAt());
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            ((List<OutboxFastPath.QueuedEvent>) TransactionSynchronizationManager.getResource(this)).add(queued);
+            return;
+        }
+        List<OutboxFastPath.QueuedEvent> committed = new ArrayList<>();
+        committed.add(queued);
+        TransactionSynchronizationManager.bindResource(this, committed);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (notifyEnabled && !outboxFastPath.isEnabled()) {
+                    jdbcTemplate.execute("NOTIFY " + OutboxNotificationListener.OUTBOX_CHANNEL);
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                if (outboxFastPath.isEnabled()) {
+                    outboxFastPath.enqueue(committed);
+                } else {
+                    wakeupSignal.signal();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(OutboxEventPublisher.this);
+            }
+        });
+    }
+
     /**
      * Convenience method for publishing with just event type and payload.
      */
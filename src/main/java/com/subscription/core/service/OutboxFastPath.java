@@ -0,0 +1,124 @@
+package com.subscription.core.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.IntStream;
+
+/**
+ * After-commit fast path of the outbox.
+ * {@link OutboxEventPublisher} hands the events of each committed transaction to a bounded
+ * in-process queue; worker threads claim them by ID, relay them and mark them published right
+ * away, so events normally reach Kafka without a polling round-trip. The queue is best effort:
+ * events that do not fit, are still queued at shutdown or are lost in a crash stay unpublished
+ * in the outbox and are picked up by the straggler sweep of the polling scheduler.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxFastPath {
+
+    private final OutboxRelayService outboxRelayService;
+
+    @Value("${outbox.fast-path.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.fast-path.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${outbox.fast-path.workers:2}")
+    private int workers;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    private BlockingQueue<QueuedEvent> queue;
+    private List<Thread> workerThreads = List.of();
+    private volatile boolean running;
+
+    /**
+     * A committed event waiting to be relayed; createdAt lets the claim prune partitions.
+     */
+    public record QueuedEvent(UUID eventId, Instant createdAt) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void initQueue() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        workerThreads = IntStream.range(0, workers)
+                .mapToObj(i -> Thread.ofPlatform().name("outbox-fast-path-" + i).daemon().start(this::work))
+                .toList();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        workerThreads.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Queues committed events for immediate relay. Events that do not fit are left to the sweep.
+     *
+     * @param events Events of one committed transaction
+     */
+    public void enqueue(List<QueuedEvent> events) {
+        if (!enabled) {
+            return;
+        }
+        int dropped = 0;
+        for (QueuedEvent event : events) {
+            if (!queue.offer(event)) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            log.warn("[f:enqueue] Fast path queue full, {} events left to the sweep", dropped);
+        }
+    }
+
+    private void work() {
+        List<QueuedEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+
+                List<UUID> eventIds = batch.stream().map(QueuedEvent::eventId).toList();
+                Instant createdFrom = batch.stream().map(QueuedEvent::createdAt).min(Instant::compareTo).orElseThrow();
+                outboxRelayService.relayEvents(eventIds, createdFrom);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // The events stay unpublished and are picked up by the sweep
+                log.error("[f:work] Fast path relay of {} events failed", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
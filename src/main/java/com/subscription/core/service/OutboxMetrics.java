@@ -0,0 +1,112 @@
+package com.subscription.core.service;
+
+import com.subscription.core.repository.BusinessEventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Micrometer instrumentation of the outbox relay.
+ *
+ * Meters:
+ * - outbox.unpublished: live unpublished events (not dead-lettered), capped at outbox.metrics.count-cap
+ * - outbox.oldest.unpublished.age: seconds the head of the outbox has been waiting
+ * - outbox.events.published: acknowledged events per topic, rate() gives the publish rate
+ * - outbox.publish.latency: created_at to broker acknowledgement (histogram)
+ * - outbox.events.superseded: events coalesced away per event type, never sent
+ *
+ * The two outbox gauges are refreshed on a fixed delay from bounded queries on the partial
+ * index of unpublished events, so scraping never queries the database. The same sample backs
+ * the outbox health indicator.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final BusinessEventRepository businessEventRepository;
+
+    @Value("${outbox.metrics.count-cap:100000}")
+    private int countCap;
+
+    private final AtomicReference<OutboxSample> lastSample = new AtomicReference<>();
+
+    private Timer publishLatencyTimer;
+
+    /**
+     * One refresh of the outbox gauges.
+     *
+     * @param unpublished Live unpublished events, at most the count cap
+     * @param oldestAgeSeconds Age of the oldest live unpublished event, 0 when the outbox is empty
+     * @param sampledAt When the sample was taken
+     */
+    public record OutboxSample(long unpublished, double oldestAgeSeconds, Instant sampledAt) {
+    }
+
+    @PostConstruct
+    void registerMeters() {
+        publishLatencyTimer = Timer.builder("outbox.publish.latency")
+                .description("Time from writing an outbox event to its broker acknowledgement")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("outbox.unpublished", lastSample, sample -> Objects.isNull(sample.get()) ? 0 : sample.get().unpublished())
+                .description("Live unpublished outbox events (capped)")
+                .register(meterRegistry);
+        Gauge.builder("outbox.oldest.unpublished.age", lastSample,
+                        sample -> Objects.isNull(sample.get()) ? 0 : sample.get().oldestAgeSeconds())
+                .description("Seconds the oldest live unpublished outbox event has been waiting")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records an event acknowledged by the broker.
+     *
+     * @param topic The topic it was published to
+     * @param createdAt When the event was written to the outbox
+     */
+    public void recordPublished(String topic, Instant createdAt) {
+        meterRegistry.counter("outbox.events.published", "topic", topic).increment();
+        publishLatencyTimer.record(Duration.between(createdAt, Instant.now()));
+    }
+
+    public void recordSuperseded(String eventType, int count) {
+        meterRegistry.counter("outbox.events.superseded", "eventType", eventType).increment(count);
+    }
+
+    /**
+     * Refreshes the unpublished count and head age.
+     */
+    @Scheduled(fixedDelayString = "${outbox.metrics.refresh-ms:10000}")
+    public void refresh() {
+        try {
+            Instant now = Instant.now();
+            long unpublished = businessEventRepository.countUnpublishedUpTo(countCap);
+            double oldestAgeSeconds = unpublished == 0 ? 0 : businessEventRepository.findOldestUnpublishedCreatedAt()
+                    .map(createdAt -> Duration.between(createdAt, now).toMillis() / 1000.0)
+                    .orElse(0.0);
+            lastSample.set(new OutboxSample(unpublished, oldestAgeSeconds, now));
+        } catch (Exception e) {
+            log.warn("[f:refresh] Could not refresh outbox metrics: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return The last outbox sample, or null before the first refresh
+     */
+    public OutboxSample getLastSample() {
+        return lastSample.get();
+    }
+}
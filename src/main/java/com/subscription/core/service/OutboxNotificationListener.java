@@ -0,0 +1,105 @@
+package com.subscription.core.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+
+/**
+ * Listens on the Postgres outbox channel and wakes the relay when any instance commits events.
+ * {@link OutboxEventPublisher} issues a NOTIFY inside the publishing transaction, which Postgres
+ * delivers only on commit and collapses to one notification per transaction.
+ *
+ * The listener holds one connection of the datasource pool for as long as it runs. When the
+ * connection breaks it reconnects after outbox.notify.reconnect-delay-ms and raises a wakeup,
+ * since notifications sent while disconnected are lost; the relay's periodic sweep covers
+ * anything missed in between. Disabled with outbox.notify.enabled=false for non-Postgres
+ * datasources, where only the in-JVM {@link OutboxWakeupSignal} and the sweep remain. Not
+ * started while the after-commit {@link OutboxFastPath} is enabled, which relays every
+ * committed event directly.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxNotificationListener {
+
+    public static final String OUTBOX_CHANNEL = "outbox_events";
+
+    private final DataSource dataSource;
+    private final OutboxWakeupSignal wakeupSignal;
+    private final OutboxFastPath outboxFastPath;
+
+    @Value("${outbox.notify.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.notify.poll-timeout-ms:10000}")
+    private int pollTimeoutMs;
+
+    @Value("${outbox.notify.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || outboxFastPath.isEnabled()) {
+            log.info("[f:start] Outbox LISTEN/NOTIFY not in use, relying on the fast path and the periodic sweep");
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform().name("outbox-listener").daemon().start(this::listen);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (Objects.nonNull(listenerThread)) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + OUTBOX_CHANNEL);
+                }
+                log.info("[f:listen] Listening on channel {}", OUTBOX_CHANNEL);
+                // Catch up on anything committed while not listening
+                wakeupSignal.signal();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (Objects.nonNull(notifications) && notifications.length > 0) {
+                        wakeupSignal.signal();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("[f:listen] Outbox listener connection failed, reconnecting in {} ms: {}",
+                        reconnectDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package com.subscription.core.service;
+
+import com.subscription.core.codec.EventCodec;
+import com.subscription.core.codec.EventCodecs;
+import com.subscription.core.entity.BusinessEvent;
+import com.subscription.core.repository.BusinessEventRepository;
+import com.subscription.shared.dto.event.EventEnvelope;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Relays claimed outbox events to Kafka.
+ * A batch is claimed by leasing its events for outbox.relay.claim-lease-ms in a statement that
+ * commits before anything is sent, so no row lock or transaction is held while waiting for the
+ * broker. All records of the batch are then handed to the producer in creation order without
+ * waiting for acknowledgements in between; the records of one aggregate share a key and
+ * therefore a partition, where the idempotent producer keeps them in order. After the sends
+ * complete, each aggregate's events are marked
+ * published up to its first event that failed or was not acknowledged in time; that event and
+ * the later events of the same aggregate stay unpublished and are retried by a later relay pass
+ * (later ones that did reach Kafka are sent again after it), so delivery is at-least-once and
+ * a failure holds back only its own aggregate. Published marks are one bulk UPDATE; events
+ * left unmarked keep their lease and are claimed again once it expires. A failed
+ * send counts as an attempt: the event is retried after an exponential backoff and
+ * dead-lettered after outbox.retry.max-attempts, so a poison event stops being re-sent on every
+ * pass. Ordering across batches and concurrent relays
+ * is kept by the claim queries, which never claim an event while an earlier unpublished event of
+ * its aggregate is outside the claimed set (leased or locked by another relay, in backoff or not
+ * yet due).
+ *
+ * Event types listed in outbox.coalescing.event-types are treated as state snapshots: within a
+ * claimed batch only the newest event per aggregate is sent, older ones are marked superseded.
+ *
+ * The number of sends awaiting an acknowledgement is exposed as the gauge outbox.relay.in-flight.
+ *
+ * Values are written by the {@link EventCodec} of each event's content type around the stored
+ * payload without decoding it. Records carry the content type in the contentType header, and
+ * the __TypeId__ header the JsonSerializer used to add so JSON consumers still resolve the
+ * envelope type.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelayService {
+
+    private static final String USER_EVENTS_TOPIC = "user-events";
+    private static final String SUBSCRIPTION_EVENTS_TOPIC = "subscription-events";
+    private static final String PRODUCT_EVENTS_TOPIC = "product-events";
+    private static final String ORDER_EVENTS_TOPIC = "order-events";
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final String REPLAY_JOB_HEADER = "replayJobId";
+    private static final byte[] ENVELOPE_TYPE_ID = EventEnvelope.class.getName().getBytes(StandardCharsets.UTF_8);
+
+    private final BusinessEventRepository businessEventRepository;
+    private final KafkaTemplate<String, byte[]> rawKafkaTemplate;
+    private final EventCodecs eventCodecs;
+    private final MeterRegistry meterRegistry;
+    private final OutboxMetrics outboxMetrics;
+
+    @Value("${outbox.relay.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    @Value("${outbox.relay.claim-lease-ms:120000}")
+    private long claimLeaseMs;
+
+    @Value("${outbox.coalescing.event-types:}")
+    private Set<String> coalescingEventTypes;
+
+    @Value("${outbox.retry.base-delay-ms:1000}")
+    private long retryBaseDelayMs;
+
+    @Value("${outbox.retry.max-delay-ms:3600000}")
+    private long retryMaxDelayMs;
+
+    @Value("${outbox.retry.max-attempts:15}")
+    private int maxAttempts;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @PostConstruct
+    void init() {
+        if (claimLeaseMs <= sendTimeoutMs) {
+            throw new IllegalStateException("outbox.relay.claim-lease-ms (" + claimLeaseMs
+                    + ") must exceed outbox.relay.send-timeout-ms (" + sendTimeoutMs + ")");
+        }
+        Gauge.builder("outbox.relay.in-flight", inFlight, AtomicInteger::get)
+                .description("Outbox events sent and awaiting a broker acknowledgement")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claims the next batch of unpublished events and relays it.
+     * The claim commits a lease on the events before they are sent, so no other relay sends the
+     * same events concurrently while no lock is held during the sends.
+     *
+     * @param batchSize Maximum number of events to claim
+     * @param minAge Only events at least this old are claimed (zero for all)
+     * @return Number of events published; less than batchSize when the outbox is drained or
+     *         some events failed and were left for a later pass
+     */
+    public int relayNextBatch(int batchSize, Duration minAge) {
+        Instant now = Instant.now();
+        List<BusinessEvent> events = inCreationOrder(businessEventRepository.claimUnpublishedBatch(
+                batchSize, now, now.minus(minAge), now.plusMillis(claimLeaseMs)));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        int published = relay(events);
+        log.debug("[f:relayNextBatch] Claimed {} events, {} published", events.size(), published);
+        return published;
+    }
+
+    /**
+     * Claims specific events and relays them (after-commit fast path).
+     * Events that cannot be claimed are left to the sweep.
+     *
+     * @param eventIds The events to relay
+     * @param createdFrom The oldest createdAt among them
+     * @return Number of events published
+     */
+    public int relayEvents(Collection<UUID> eventIds, Instant createdFrom) {
+        Instant now = Instant.now();
+        List<BusinessEvent> events = inCreationOrder(businessEventRepository.claimEvents(
+                eventIds, createdFrom, now, now.plusMillis(claimLeaseMs)));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        int published = relay(events);
+        log.debug("[f:relayEvents] Claimed {} of {} events, {} published", events.size(), eventIds.size(), published);
+        return published;
+    }
+
+    private static List<BusinessEvent> inCreationOrder(List<BusinessEvent> events) {
+        return events.stream().sorted(Comparator.comparing(BusinessEvent::getCreatedAt)).toList();
+    }
+
+    /**
+     * Sends a batch of events and marks the acknowledged ones published.
+     * Each write (superseded, failed and published marks) commits on its own.
+     *
+     * @param claimed Claimed (leased) unpublished events, oldest first
+     * @return Number of events acknowledged and marked published, plus those superseded
+     */
+    public int relay(List<BusinessEvent> claimed) {
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<BusinessEvent> events = coalesce(claimed);
+        int superseded = claimed.size() - events.size();
+
+        Map<UUID, String> failures = new HashMap<>();
+        List<UUID> published = sendAll(events, null, failures);
+        recordFailures(events, failures);
+
+        if (!published.isEmpty()) {
+            Instant createdFrom = events.stream().map(BusinessEvent::getCreatedAt).min(Instant::compareTo).orElseThrow();
+            businessEventRepository.markPublished(published, createdFrom, Instant.now());
+        }
+
+        if (published.size() < events.size()) {
+            log.warn("[f:relay] {} of {} events not acknowledged, left for retry",
+                    events.size() - published.size(), events.size());
+        }
+        return published.size() + superseded;
+    }
+
+    /**
+     * Re-sends already published events (replay). Nothing is written to the outbox; events that
+     * are not acknowledged are only counted. Records carry the replay job ID in the
+     * replayJobId header so consumers can tell replays from first deliveries.
+     *
+     * @param events Events to re-send, oldest first
+     * @param replayJobId The replay job
+     * @return Number of events acknowledged
+     */
+    public int republish(List<BusinessEvent> events, String replayJobId) {
+        return sendAll(events, replayJobId, new HashMap<>()).size();
+    }
+
+    /**
+     * Hands every event to the producer in creation order, without waiting for acknowledgements
+     * in between, and waits for the acknowledgements up to the send timeout. A send that fails
+     * synchronously (e.g. the record cannot be encoded) skips the later events of its aggregate
+     * but not the rest of the batch.
+     *
+     * @param events Events to send, oldest first
+     * @param replayJobId Replay job ID for re-sends, null for first deliveries
+     * @param failures Collects the error of each failed send
+     * @return IDs of the acknowledged events, per aggregate up to its first unacknowledged event
+     */
+    private List<UUID> sendAll(List<BusinessEvent> events, String replayJobId, Map<UUID, String> failures) {
+        List<PendingSend> pending = new ArrayList<>(events.size());
+        Set<String> failedAggregates = new HashSet<>();
+        for (BusinessEvent event : events) {
+            if (failedAggregates.contains(aggregateKey(event))) {
+                continue;
+            }
+            CompletableFuture<SendResult<String, byte[]>> future;
+            try {
+                future = send(event, replayJobId);
+            } catch (Exception e) {
+                failedAggregates.add(aggregateKey(event));
+                future = CompletableFuture.failedFuture(e);
+            }
+            inFlight.incrementAndGet();
+            future.whenComplete((result, error) -> inFlight.decrementAndGet());
+            pending.add(new PendingSend(event, future));
+        }
+
+        awaitSends(pending);
+        return collectAcknowledged(pending, replayJobId, failures);
+    }
+
+    /**
+     * Applies the coalescing policy to a claimed batch: of several events of a coalescing type
+     * for the same aggregate, only the newest is kept; the older ones are marked published and
+     * superseded by it without being sent. They are superseded even if sending the newest
+     * fails, since the newest stays in the outbox and carries the latest state.
+     *
+     * @param claimed Claimed events, oldest first
+     * @return The events to send, oldest first
+     */
+    private List<BusinessEvent> coalesce(List<BusinessEvent> claimed) {
+        if (coalescingEventTypes.isEmpty()) {
+            return claimed;
+        }
+
+        Map<String, UUID> newestByAggregate = new HashMap<>();
+        List<BusinessEvent> kept = new ArrayList<>(claimed.size());
+        List<BusinessEvent> superseded = new ArrayList<>();
+        List<UUID> supersededBy = new ArrayList<>();
+        for (BusinessEvent event : claimed.reversed()) {
+            if (!coalescingEventTypes.contains(event.getEventType())) {
+                kept.add(event);
+                continue;
+            }
+            String key = event.getEventType() + '|' + event.getAggregateType() + '|' + event.getAggregateId();
+            UUID newest = newestByAggregate.putIfAbsent(key, event.getEventId());
+            if (Objects.isNull(newest)) {
+                kept.add(event);
+            } else {
+                superseded.add(event);
+                supersededBy.add(newest);
+            }
+        }
+
+        if (superseded.isEmpty()) {
+            return claimed;
+        }
+
+        Instant createdFrom = superseded.getLast().getCreatedAt();
+        businessEventRepository.markSuperseded(
+                superseded.stream().map(event -> event.getEventId().toString()).collect(Collectors.joining(",")),
+                supersededBy.stream().map(UUID::toString).collect(Collectors.joining(",")),
+                createdFrom, Instant.now());
+        superseded.stream()
+                .collect(Collectors.groupingBy(BusinessEvent::getEventType, Collectors.counting()))
+                .forEach((eventType, count) -> outboxMetrics.recordSuperseded(eventType, count.intValue()));
+        log.debug("[f:coalesce] {} of {} claimed events superseded", superseded.size(), claimed.size());
+
+        return kept.reversed();
+    }
+
+    /**
+     * Walks the sends in creation order and accepts, per aggregate, the acknowledged events up
+     * to the first one that failed or is still outstanding. A failure is logged and recorded as
+     * an attempt; events held back behind it, and events not acknowledged in time, are not.
+     */
+    private List<UUID> collectAcknowledged(List<PendingSend> pending, String replayJobId, Map<UUID, String> failures) {
+        List<UUID> acknowledged = new ArrayList<>(pending.size());
+        Set<String> stoppedAggregates = new HashSet<>();
+        for (PendingSend send : pending) {
+            BusinessEvent event = send.event();
+            if (stoppedAggregates.contains(aggregateKey(event))) {
+                continue;
+            }
+            if (send.future().state() == Future.State.SUCCESS) {
+                acknowledged.add(event.getEventId());
+                if (Objects.isNull(replayJobId)) {
+                    outboxMetrics.recordPublished(determineTopicFromEventType(event.getEventType()), event.getCreatedAt());
+                }
+                continue;
+            }
+            stoppedAggregates.add(aggregateKey(event));
+            if (send.future().state() == Future.State.FAILED) {
+                Throwable cause = send.future().exceptionNow();
+                log.error("[f:collectAcknowledged] Failed to send event: id={}, type={}, error={}",
+                        event.getEventId(), event.getEventType(), cause.getMessage(), cause);
+                failures.put(event.getEventId(), String.valueOf(cause));
+            }
+        }
+        return acknowledged;
+    }
+
+    private static String aggregateKey(BusinessEvent event) {
+        return event.getAggregateType() + '|' + event.getAggregateId();
+    }
+
+    /**
+     * Counts a failed attempt for each failed event and schedules its retry with exponential
+     * backoff, or dead-letters it once outbox.retry.max-attempts is reached.
+     */
+    private void recordFailures(List<BusinessEvent> events, Map<UUID, String> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (BusinessEvent event : events) {
+            String error = failures.get(event.getEventId());
+            if (Objects.isNull(error)) {
+                continue;
+            }
+            int attempts = event.getAttemptCount() + 1;
+            String lastError = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+            if (attempts >= maxAttempts) {
+                businessEventRepository.recordFailure(event.getEventId(), event.getCreatedAt(), attempts, lastError, null, now);
+                log.error("[f:recordFailures] Dead-lettered event {} ({}) after {} attempts",
+                        event.getEventId(), event.getEventType(), attempts);
+            } else {
+                businessEventRepository.recordFailure(event.getEventId(), event.getCreatedAt(), attempts, lastError,
+                        now.plusMillis(backoffMs(attempts)), null);
+            }
+        }
+    }
+
+    private long backoffMs(int attempts) {
+        return Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(attempts - 1, 30));
+    }
+
+    /**
+     * Waits for the acknowledgements up to the send timeout. Late acknowledgements are not
+     * marked; those events keep their lease and are re-sent after it expires.
+     */
+    private void awaitSends(List<PendingSend> pending) {
+        try {
+            CompletableFuture.allOf(pending.stream().map(PendingSend::future).toArray(CompletableFuture[]::new))
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Failed sends are picked up per aggregate by collectAcknowledged
+            log.debug("[f:awaitSends] Batch completed with failures: {}", e.getMessage());
+        } catch (TimeoutException e) {
+            log.warn("[f:awaitSends] Batch not fully acknowledged within {} ms", sendTimeoutMs);
+        }
+    }
+
+    /**
+     * A record handed to the producer and its pending acknowledgement.
+     */
+    private record PendingSend(BusinessEvent event, CompletableFuture<SendResult<String, byte[]>> future) {
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> send(BusinessEvent event, String replayJobId) {
+        String topic = determineTopicFromEventType(event.getEventType());
+        String eventType = normalizeEventType(event.getEventType());
+
+        EventCodec codec = eventCodecs.forContentType(event.getContentType());
+
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, event.getAggregateId(),
+                codec.writeEnvelope(event, eventType));
+        record.headers().add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, ENVELOPE_TYPE_ID);
+        record.headers().add(MessageHeaders.CONTENT_TYPE, codec.contentType().getBytes(StandardCharsets.UTF_8));
+        if (Objects.nonNull(replayJobId)) {
+            record.headers().add(REPLAY_JOB_HEADER, replayJobId.getBytes(StandardCharsets.UTF_8));
+        }
+
+        log.debug("Publishing to Kafka: topic={}, eventId={}, eventType={}, aggregateId={}",
+                topic, event.getEventId(), eventType, event.getAggregateId());
+
+        return rawKafkaTemplate.send(record);
+    }
+
+    private String normalizeEventType(String eventType) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < eventType.length(); i++) {
+            char c = eventType.charAt(i);
+            if (Character.isUpperCase(c) && i > 0) {
+                result.append('_');
+            }
+            result.append(Character.toUpperCase(c));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Maps an event type to its Kafka topic by aggregate prefix.
+     *
+     * @param eventType The event type
+     * @return The topic name
+     */
+    public String determineTopicFromEventType(String eventType) {
+        if (eventType.startsWith("User")) {
+            return USER_EVENTS_TOPIC;
+        } else if (eventType.startsWith("Subscription")) {
+            return SUBSCRIPTION_EVENTS_TOPIC;
+        } else if (eventType.startsWith("Product")) {
+            return PRODUCT_EVENTS_TOPIC;
+        } else if (eventType.startsWith("Order")) {
+            return ORDER_EVENTS_TOPIC;
+        }
+
+        log.warn("Unknown event type: {}, defaulting to user-events topic", eventType);
+        return USER_EVENTS_TOPIC;
+    }
+}
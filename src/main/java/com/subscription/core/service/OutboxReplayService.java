@@ -0,0 +1,241 @@
+package com.subscription.core.service;
+
+import com.subscription.core.dto.OutboxReplayRequestDTO;
+import com.subscription.core.dto.OutboxReplayStatusDTO;
+import com.subscription.core.entity.BusinessEvent;
+import com.subscription.core.enums.OutboxReplayStatus;
+import com.subscription.core.exception.ResourceNotFoundException;
+import com.subscription.core.repository.BusinessEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Replays published outbox events to Kafka, e.g. after a downstream service lost data.
+ * A replay runs as a background job on this instance: events of the requested range are read
+ * in keyset pages of outbox.replay.batch-size on (created_at, event_id), each page in its own
+ * short read, and re-sent through the relay's per-aggregate lanes, paced to
+ * outbox.replay.max-events-per-second. No transaction or connection is held while a page is
+ * sent or while the job is throttled, so a long replay neither pins a snapshot on the outbox
+ * nor blocks partition maintenance. Memory use is bounded by the page size, not by the range.
+ * Jobs run one at a time; their progress is kept in memory on the instance that runs them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxReplayService {
+
+    private final BusinessEventRepository businessEventRepository;
+    private final OutboxRelayService outboxRelayService;
+
+    @Value("${outbox.replay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.replay.max-events-per-second:500}")
+    private int maxEventsPerSecond;
+
+    /**
+     * Keyset origin of the first page; no event has the nil UUID.
+     */
+    private static final UUID KEYSET_START_ID = new UUID(0, 0);
+
+    private final Map<String, ReplayJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService replayExecutor;
+
+    @PostConstruct
+    void initReplayExecutor() {
+        replayExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("outbox-replay-"));
+    }
+
+    @PreDestroy
+    void shutdownReplayExecutor() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        replayExecutor.shutdownNow();
+    }
+
+    /**
+     * Queues a replay job.
+     *
+     * @param request Range and filters of the replay
+     * @return Status of the queued job
+     */
+    public OutboxReplayStatusDTO startReplay(OutboxReplayRequestDTO request) {
+        Instant to = Objects.isNull(request.getTo()) ? Instant.now() : request.getTo();
+        if (!request.getFrom().isBefore(to)) {
+            throw new IllegalArgumentException("Replay range is empty: from must be before to");
+        }
+        List<String> aggregateIds = Objects.isNull(request.getAggregateIds()) ? List.of() : List.copyOf(request.getAggregateIds());
+
+        ReplayJob job = new ReplayJob(UUID.randomUUID().toString(), request.getAggregateType(), aggregateIds,
+                request.getFrom(), to);
+        jobs.put(job.jobId, job);
+        replayExecutor.execute(() -> run(job));
+
+        log.info("[f:startReplay] Queued replay {} of {} events created in [{}, {}), {} aggregate ids",
+                job.jobId, Objects.isNull(job.aggregateType) ? "all" : job.aggregateType, job.from, job.to, aggregateIds.size());
+        return job.toDto();
+    }
+
+    public OutboxReplayStatusDTO getReplay(String jobId) {
+        return findJob(jobId).toDto();
+    }
+
+    /**
+     * Stops a queued or running replay after its current batch.
+     */
+    public OutboxReplayStatusDTO cancelReplay(String jobId) {
+        ReplayJob job = findJob(jobId);
+        job.cancelled = true;
+        log.info("[f:cancelReplay] Cancelling replay {}", jobId);
+        return job.toDto();
+    }
+
+    private ReplayJob findJob(String jobId) {
+        ReplayJob job = jobs.get(jobId);
+        if (Objects.isNull(job)) {
+            throw new ResourceNotFoundException("Replay job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(ReplayJob job) {
+        if (job.cancelled) {
+            job.finish(OutboxReplayStatus.CANCELLED, null);
+            return;
+        }
+        job.status = OutboxReplayStatus.RUNNING;
+        job.startedAt = Instant.now();
+        try {
+            pageAndRepublish(job);
+
+            job.finish(job.cancelled ? OutboxReplayStatus.CANCELLED : OutboxReplayStatus.COMPLETED, null);
+            log.info("[f:run] Replay {} {}: {} read, {} republished, {} failed",
+                    job.jobId, job.status, job.readCount, job.republishedCount, job.failedCount);
+        } catch (Exception e) {
+            log.error("[f:run] Replay {} failed", job.jobId, e);
+            job.finish(OutboxReplayStatus.FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads and republishes one keyset page at a time until the range is exhausted or the job
+     * is cancelled. The page read runs in its own read-only repository transaction, which ends
+     * before the page is sent.
+     */
+    private void pageAndRepublish(ReplayJob job) {
+        boolean anyAggregateId = job.aggregateIds.isEmpty();
+        List<String> aggregateIds = anyAggregateId ? List.of("") : job.aggregateIds;
+        Instant afterCreatedAt = job.from;
+        UUID afterEventId = KEYSET_START_ID;
+
+        List<BusinessEvent> page;
+        do {
+            page = businessEventRepository.findReplayPage(afterCreatedAt, afterEventId, job.to,
+                    job.aggregateType, anyAggregateId, aggregateIds, batchSize);
+            if (page.isEmpty()) {
+                return;
+            }
+            republish(job, page);
+
+            BusinessEvent last = page.getLast();
+            afterCreatedAt = last.getCreatedAt();
+            afterEventId = last.getEventId();
+        } while (page.size() == batchSize && !job.cancelled);
+    }
+
+    private void republish(ReplayJob job, List<BusinessEvent> page) {
+        int acknowledged = outboxRelayService.republish(page, job.jobId);
+        job.readCount += page.size();
+        job.republishedCount += acknowledged;
+        job.failedCount += page.size() - acknowledged;
+        job.lastCreatedAt = page.getLast().getCreatedAt();
+        throttle(job);
+    }
+
+    /**
+     * Sleeps as long as the job is ahead of max-events-per-second on average since it started.
+     */
+    private void throttle(ReplayJob job) {
+        long dueMs = job.readCount * 1000 / maxEventsPerSecond;
+        long elapsedMs = Duration.between(job.startedAt, Instant.now()).toMillis();
+        if (dueMs <= elapsedMs) {
+            return;
+        }
+        try {
+            Thread.sleep(dueMs - elapsedMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.cancelled = true;
+        }
+    }
+
+    /**
+     * Mutable state of one replay, written by the replay thread and read by status requests.
+     */
+    private static final class ReplayJob {
+        private final String jobId;
+        private final String aggregateType;
+        private final List<String> aggregateIds;
+        private final Instant from;
+        private final Instant to;
+
+        private volatile OutboxReplayStatus status = OutboxReplayStatus.QUEUED;
+        private volatile boolean cancelled;
+        private volatile long readCount;
+        private volatile long republishedCount;
+        private volatile long failedCount;
+        private volatile Instant lastCreatedAt;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private ReplayJob(String jobId, String aggregateType, List<String> aggregateIds, Instant from, Instant to) {
+            this.jobId = jobId;
+            this.aggregateType = aggregateType;
+            this.aggregateIds = aggregateIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        private void finish(OutboxReplayStatus finalStatus, String failure) {
+            error = failure;
+            finishedAt = Instant.now();
+            status = finalStatus;
+        }
+
+        private OutboxReplayStatusDTO toDto() {
+            Instant end = Objects.isNull(finishedAt) ? Instant.now() : finishedAt;
+            double elapsedSeconds = Objects.isNull(startedAt) ? 0 : Duration.between(startedAt, end).toMillis() / 1000.0;
+            return OutboxReplayStatusDTO.builder()
+                    .jobId(jobId)
+                    .status(status)
+                    .aggregateType(aggregateType)
+                    .aggregateIdCount(aggregateIds.size())
+                    .from(from)
+                    .to(to)
+                    .readCount(readCount)
+                    .republishedCount(republishedCount)
+                    .failedCount(failedCount)
+                    .lastCreatedAt(lastCreatedAt)
+                    .eventsPerSecond(elapsedSeconds > 0 ? republishedCount / elapsedSeconds : 0)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
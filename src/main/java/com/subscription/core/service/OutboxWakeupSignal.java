@@ -0,0 +1,45 @@
+package com.subscription.core.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-JVM wakeup for the outbox relay.
+ * Signals raised while the relay is busy are coalesced into one pending wakeup, so a burst of
+ * committed events triggers a single extra drain rather than one per event.
+ * Raised after commit by {@link OutboxEventPublisher} for events written by this instance and
+ * by {@link OutboxNotificationListener} for NOTIFYs from any instance.
+ */
+@Component
+public class OutboxWakeupSignal {
+
+    private final Object monitor = new Object();
+    private boolean pending;
+
+    public void signal() {
+        synchronized (monitor) {
+            pending = true;
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until a signal is pending or the timeout elapses, and consumes the pending signal.
+     *
+     * @param timeoutMs Maximum time to wait
+     * @return true if woken by a signal, false on timeout
+     * @throws InterruptedException If the waiting thread is interrupted
+     */
+    public boolean await(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (monitor) {
+            long remaining = timeoutMs;
+            while (!pending && remaining > 0) {
+                monitor.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            boolean signalled = pending;
+            pending = false;
+            return signalled;
+        }
+    }
+}
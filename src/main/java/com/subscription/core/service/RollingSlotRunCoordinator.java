@@ -0,0 +1,75 @@
+package com.subscription.core.service;
+
+import com.subscription.core.repository.RollingSlotRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Coordinates rolling order generation across replicas.
+ * Every replica runs the same timing wheel; before generating a slot (or the end-of-day sweep)
+ * an instance claims that firing in rolling_slot_runs, so each firing runs on one instance.
+ * Leases use the instance id and TTL of the nightly run's partition leases; a firing whose
+ * owner died can be claimed again once its lease expires, so the owner renews it after every
+ * chunk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RollingSlotRunCoordinator {
+
+    /**
+     * slot_id under which the end-of-day sweep of a date is recorded.
+     */
+    public static final String SWEEP_SLOT_ID = "*";
+
+    private final RollingSlotRunRepository rollingSlotRunRepository;
+    private final OrderRunLeaseCoordinator leaseCoordinator;
+
+    @Value("${order-creation.lease.ttl-seconds:300}")
+    private int leaseTtlSeconds;
+
+    /**
+     * Claims the firing of a slot on a date.
+     *
+     * @param runDate The date
+     * @param slotId The slot, or SWEEP_SLOT_ID for the sweep
+     * @return true if this instance should run the firing
+     */
+    @Transactional
+    public boolean claim(LocalDate runDate, String slotId) {
+        return rollingSlotRunRepository.claim(runDate, slotId, leaseCoordinator.getInstanceId(), leaseTtlSeconds) > 0;
+    }
+
+    /**
+     * Extends the lease of a firing this instance runs.
+     *
+     * @return false if the lease was lost, in which case the firing must stop
+     */
+    @Transactional
+    public boolean renew(LocalDate runDate, String slotId) {
+        return rollingSlotRunRepository.renew(runDate, slotId, leaseCoordinator.getInstanceId(), leaseTtlSeconds) > 0;
+    }
+
+    @Transactional
+    public void complete(LocalDate runDate, String slotId) {
+        rollingSlotRunRepository.complete(runDate, slotId, leaseCoordinator.getInstanceId());
+    }
+
+    /**
+     * Gives a failed firing back so any instance may claim it again.
+     */
+    @Transactional
+    public void release(LocalDate runDate, String slotId) {
+        rollingSlotRunRepository.release(runDate, slotId, leaseCoordinator.getInstanceId());
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isCompleted(LocalDate runDate, String slotId) {
+        return rollingSlotRunRepository.countCompleted(runDate, slotId) > 0;
+    }
+}
@@ -14,9 +14,9 @@ import com.subscription.shared.dto.event.SubscriptionPausedEvent;
 import com.subscription.shared.dto.event.SubscriptionResumedEvent;
 import com.subscription.shared.dto.event.SubscriptionUpdatedEvent;
 import com.subscription.core.entity.Subscription;
-import com.subscription.core.enums.SubscriptionFrequency;
 import com.subscription.core.enums.SubscriptionStatus;
 import com.subscription.core.repository.SubscriptionRepository;
+import com.subscription.core.util.DeliveryScheduleUtil;
 import com.subscription.core.util.LambdaUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +36,7 @@ public class SubscriptionService {
     private final SubscriptionRepository subscriptionRepository;
     private final OutboxEventPublisher outboxEventPublisher;
     private final SearchSubscriptionApi searchSubscriptionApi;
+    private final DeliveryCalendarService deliveryCalendarService;
 
     /**
      * Creates or updates a subscription.
@@ -65,6 +66,7 @@ public class SubscriptionService {
                 .orElse(createSubscription(subscriptionRequest));
 
         Subscription savedSubscription = subscriptionRepository.save(subscription);
+        deliveryCalendarService.refresh(savedSubscription);
 
         if (!isUpdate) {
             // Publish to outbox for guaranteed delivery
@@ -162,6 +164,7 @@ public class SubscriptionService {
         subscription.setPauseReason(pauseDTO.getPauseReason());
 
         Subscription savedSubscription = subscriptionRepository.save(subscription);
+        deliveryCalendarService.remove(savedSubscription.getSubscriptionId());
 
         // Publish pause event
         outboxEventPublisher.publish(
@@ -204,6 +207,7 @@ public class SubscriptionService {
         subscription.setPauseReason(null);
 
         Subscription savedSubscription = subscriptionRepository.save(subscription);
+        deliveryCalendarService.refresh(savedSubscription);
 
         // Publish resume event
         outboxEventPublisher.publish(
@@ -242,6 +246,7 @@ public class SubscriptionService {
 
         subscription.setStatus(SubscriptionStatus.CANCELLED);
         Subscription savedSubscription = subscriptionRepository.save(subscription);
+        deliveryCalendarService.remove(savedSubscription.getSubscriptionId());
 
         // Publish cancel event
         outboxEventPublisher.publish(
@@ -278,11 +283,12 @@ public class SubscriptionService {
             throw new IllegalArgumentException("Only active subscriptions can skip deliveries");
         }
 
-        ZonedDateTime newNextDeliveryDate = calculateNextDeliveryDate(
+        ZonedDateTime newNextDeliveryDate = DeliveryScheduleUtil.nextDeliveryDate(
                 subscription.getNextDeliveryDate(), subscription.getFrequency());
         subscription.setNextDeliveryDate(newNextDeliveryDate);
 
-        subscriptionRepository.save(subscription);
+        Subscription savedSubscription = subscriptionRepository.save(subscription);
+        deliveryCalendarService.refresh(savedSubscription);
         log.info("[f:skipNextDelivery] Next delivery skipped for subscription {}", subscriptionId);
 
         return "Next delivery skipped successfully. New delivery date: " + newNextDeliveryDate;
@@ -308,6 +314,7 @@ public class SubscriptionService {
         LambdaUtil.updateIfNotNull(updateDTO.getFrequency(), subscription::setFrequency);
 
         Subscription savedSubscription = subscriptionRepository.save(subscription);
+        deliveryCalendarService.refresh(savedSubscription);
 
         // Publish update event
         outboxEventPublisher.publish(
@@ -373,21 +380,6 @@ public class SubscriptionService {
         return searchSubscriptionApi.search(searchDTO);
     }
 
-    /**
-     * Calculates the next delivery date based on frequency.
-     *
-     * @param currentDate The current delivery date
-     * @param frequency The subscription frequency
-     * @return The next delivery date
-     */
-    private ZonedDateTime calculateNextDeliveryDate(ZonedDateTime currentDate, SubscriptionFrequency frequency) {
-        return switch (frequency) {
-            case DAILY -> currentDate.plusDays(1);
-            case WEEKLY -> currentDate.plusWeeks(1);
-            case MONTHLY -> currentDate.plusMonths(1);
-        };
-    }
-
     /**
      * Converts Subscription entity to response DTO.
      *
@@ -0,0 +1,188 @@
+package com.subscription.core.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * DDL helper for tables range-partitioned by a date/timestamp column.
+ * Partitions are named {parent}_pYYYYMMDD after their inclusive lower bound, which lets
+ * maintenance jobs find and age them out by name. Table names come from code, never from
+ * user input, so they are inlined into the DDL.
+ *
+ * Rows written while the partition covering them was missing land in the table's default
+ * partition, and Postgres refuses to create a partition whose range still has rows there.
+ * Creating such a partition therefore moves those rows out of the default partition first.
+ *
+ * Detaching, and creating a partition next to a default partition, take an ACCESS EXCLUSIVE
+ * lock (on the parent or on the default partition), so they give up after
+ * partitions.detach-lock-timeout-ms instead of queueing every insert into the table behind a
+ * long-running reader; the maintenance job retries on its next run.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TablePartitionManager {
+
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${partitions.detach-lock-timeout-ms:5000}")
+    private long detachLockTimeoutMs;
+
+    public String partitionName(String parentTable, LocalDate from) {
+        return parentTable + "_p" + from.format(SUFFIX_FORMAT);
+    }
+
+    /**
+     * Creates the partition [from, to) of a parent table unless it already exists.
+     * If the table's default partition holds rows of that range, the partition is created as a
+     * standalone table, the rows are moved into it and it is attached, in one transaction that
+     * locks the default partition so no row of the range can slip in meanwhile.
+     *
+     * @param parentTable The partitioned table
+     * @param from Inclusive lower bound
+     * @param to Exclusive upper bound
+     * @return true if the partition was created
+     */
+    @Transactional
+    public boolean createPartition(String parentTable, LocalDate from, LocalDate to) {
+        String partition = partitionName(parentTable, from);
+        if (findPartitions(parentTable).containsKey(from)) {
+            return false;
+        }
+        String bounds = "FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+
+        Optional<String> defaultPartition = findDefaultPartition(parentTable);
+        if (defaultPartition.isPresent()) {
+            jdbcTemplate.execute("SET LOCAL lock_timeout = " + detachLockTimeoutMs);
+            jdbcTemplate.execute("LOCK TABLE " + defaultPartition.get() + " IN ACCESS EXCLUSIVE MODE");
+            String column = findPartitionColumn(parentTable);
+            String inRange = column + " >= '" + from + "' AND " + column + " < '" + to + "'";
+            if (hasRows(defaultPartition.get(), inRange)) {
+                jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + parentTable
+                        + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+                int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + defaultPartition.get()
+                        + " WHERE " + inRange + " RETURNING *) INSERT INTO " + partition + " SELECT * FROM moved");
+                jdbcTemplate.execute("ALTER TABLE " + parentTable + " ATTACH PARTITION " + partition + " " + bounds);
+                log.warn("[f:createPartition] Created partition {} [{}, {}) with {} rows moved from {}",
+                        partition, from, to, moved, defaultPartition.get());
+                return true;
+            }
+        }
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + parentTable + " " + bounds);
+        log.info("[f:createPartition] Created partition {} [{}, {})", partition, from, to);
+        return true;
+    }
+
+    /**
+     * Finds the earliest partition key value held by the table's default partition, i.e. the
+     * oldest row that was written while the partition covering it was missing.
+     *
+     * @param parentTable The partitioned table
+     * @return The date of that row, or empty if the default partition is empty or absent
+     */
+    @Transactional(readOnly = true)
+    public Optional<LocalDate> findEarliestDefaultRow(String parentTable) {
+        Optional<String> defaultPartition = findDefaultPartition(parentTable);
+        if (defaultPartition.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(jdbcTemplate.queryForObject("SELECT min(" + findPartitionColumn(parentTable)
+                + ")::date FROM " + defaultPartition.get(), LocalDate.class));
+    }
+
+    private Optional<String> findDefaultPartition(String parentTable) {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ? AND pg_get_expr(c.relpartbound, c.oid) = 'DEFAULT'
+                """, String.class, parentTable).stream().findFirst();
+    }
+
+    private String findPartitionColumn(String parentTable) {
+        return jdbcTemplate.queryForObject("""
+                SELECT a.attname FROM pg_partitioned_table pt
+                JOIN pg_class p ON p.oid = pt.partrelid
+                JOIN pg_attribute a ON a.attrelid = pt.partrelid AND a.attnum = pt.partattrs[0]
+                WHERE p.relname = ?
+                """, String.class, parentTable);
+    }
+
+    /**
+     * Lists the attached range partitions of a table by lower bound; the default partition and
+     * partitions not following the naming scheme are skipped.
+     *
+     * @param parentTable The partitioned table
+     * @return Partition names keyed by lower bound, ascending
+     */
+    @Transactional(readOnly = true)
+    public Map<LocalDate, String> findPartitions(String parentTable) {
+        List<String> names = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ?
+                """, String.class, parentTable);
+
+        String prefix = parentTable + "_p";
+        Map<LocalDate, String> partitions = new TreeMap<>();
+        for (String name : names) {
+            if (!name.startsWith(prefix)) {
+                continue;
+            }
+            try {
+                partitions.put(LocalDate.parse(name.substring(prefix.length()), SUFFIX_FORMAT), name);
+            } catch (DateTimeParseException e) {
+                log.debug("[f:findPartitions] Skipping partition {} of {}", name, parentTable);
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Detaches a partition; it stays as a standalone table and no row of the parent is rewritten.
+     * Fails with a lock timeout if the parent's lock cannot be taken within
+     * partitions.detach-lock-timeout-ms.
+     */
+    @Transactional
+    public void detachPartition(String parentTable, String partition) {
+        jdbcTemplate.execute("SET LOCAL lock_timeout = " + detachLockTimeoutMs);
+        jdbcTemplate.execute("ALTER TABLE " + parentTable + " DETACH PARTITION " + partition);
+        log.info("[f:detachPartition] Detached partition {} from {}", partition, parentTable);
+    }
+
+    /**
+     * Checks whether any row of a table (typically a single partition) matches a predicate.
+     * The predicate comes from code, like the table name.
+     *
+     * @param table The table or partition
+     * @param predicate SQL condition, e.g. "published_at IS NULL"
+     * @return true if at least one row matches
+     */
+    @Transactional(readOnly = true)
+    public boolean hasRows(String table, String predicate) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + " WHERE " + predicate + ")", Boolean.class));
+    }
+
+    @Transactional
+    public void dropTable(String table) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        log.info("[f:dropTable] Dropped table {}", table);
+    }
+}
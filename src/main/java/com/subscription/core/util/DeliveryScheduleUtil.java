@@ -0,0 +1,64 @@
+package com.subscription.core.util;
+
+import com.subscription.core.enums.SubscriptionFrequency;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for subscription delivery date arithmetic
+ */
+public class DeliveryScheduleUtil {
+
+    /**
+     * Calculates the next delivery date based on frequency.
+     *
+     * @param currentDate The current delivery date
+     * @param frequency The subscription frequency
+     * @return The next delivery date
+     */
+    public static ZonedDateTime nextDeliveryDate(ZonedDateTime currentDate, SubscriptionFrequency frequency) {
+        return switch (frequency) {
+            case DAILY -> currentDate.plusDays(1);
+            case WEEKLY -> currentDate.plusWeeks(1);
+            case MONTHLY -> currentDate.plusMonths(1);
+        };
+    }
+
+    /**
+     * Lists every occurrence from the given date (inclusive) up to the cutoff (inclusive).
+     *
+     * @param firstDate The first occurrence
+     * @param frequency The subscription frequency
+     * @param cutoff The last instant to include
+     * @return Occurrences in ascending order, empty if firstDate is after cutoff
+     */
+    public static List<ZonedDateTime> occurrencesUntil(ZonedDateTime firstDate, SubscriptionFrequency frequency,
+                                                       ZonedDateTime cutoff) {
+        List<ZonedDateTime> occurrences = new ArrayList<>();
+        for (ZonedDateTime date = firstDate; !date.isAfter(cutoff); date = nextDeliveryDate(date, frequency)) {
+            occurrences.add(date);
+        }
+        return occurrences;
+    }
+
+    /**
+     * Lists the given number of occurrences starting at the given date (inclusive).
+     *
+     * @param firstDate The first occurrence
+     * @param frequency The subscription frequency
+     * @param count Number of occurrences
+     * @return Occurrences in ascending order
+     */
+    public static List<ZonedDateTime> nextOccurrences(ZonedDateTime firstDate, SubscriptionFrequency frequency,
+                                                      int count) {
+        List<ZonedDateTime> occurrences = new ArrayList<>(count);
+        ZonedDateTime date = firstDate;
+        for (int i = 0; i < count; i++) {
+            occurrences.add(date);
+            date = nextDeliveryDate(date, frequency);
+        }
+        return occurrences;
+    }
+}
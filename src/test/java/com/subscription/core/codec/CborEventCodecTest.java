@@ -0,0 +1,68 @@
+package com.subscription.core.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.subscription.core.entity.BusinessEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The envelope is assembled by hand around the stored payload, so it is decoded here with a
+ * stock CBOR mapper to prove consumers see one well-formed map.
+ */
+class CborEventCodecTest {
+
+    private final CborEventCodec codec = new CborEventCodec();
+    private final CBORMapper cborMapper = CBORMapper.builder().findAndAddModules().build();
+
+    @Test
+    void writePayloadStoresBinaryPayloadAndContentType() throws IOException {
+        BusinessEvent event = newEvent();
+
+        codec.writePayload(event, Map.of("orderId", "order-1"));
+
+        assertThat(event.getContentType()).isEqualTo(CborEventCodec.CONTENT_TYPE);
+        assertThat(event.getPayload()).isNull();
+        assertThat(cborMapper.readTree(event.getPayloadBytes()).get("orderId").asText()).isEqualTo("order-1");
+    }
+
+    @Test
+    void envelopeRoundTripsThroughStockCborMapper() throws IOException {
+        BusinessEvent event = newEvent();
+        codec.writePayload(event, Map.of(
+                "orderId", "order-1",
+                "amount", 12.5,
+                "productIds", List.of("p1", "p2")));
+
+        byte[] value = codec.writeEnvelope(event, "ORDER_CREATED");
+
+        JsonNode envelope = cborMapper.readerFor(JsonNode.class)
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS)
+                .readValue(value);
+        assertThat(envelope.size()).isEqualTo(6);
+        assertThat(envelope.get("eventId").asText()).isEqualTo(event.getEventId().toString());
+        assertThat(envelope.get("eventType").asText()).isEqualTo("ORDER_CREATED");
+        assertThat(envelope.get("aggregateType").asText()).isEqualTo("Order");
+        assertThat(envelope.get("aggregateId").asText()).isEqualTo("order-1");
+        assertThat(cborMapper.treeToValue(envelope.get("timestamp"), Instant.class)).isEqualTo(event.getCreatedAt());
+
+        JsonNode payload = envelope.get("payload");
+        assertThat(payload.get("orderId").asText()).isEqualTo("order-1");
+        assertThat(payload.get("amount").asDouble()).isEqualTo(12.5);
+        assertThat(payload.get("productIds")).extracting(JsonNode::asText).containsExactly("p1", "p2");
+    }
+
+    private BusinessEvent newEvent() {
+        BusinessEvent event = new BusinessEvent("OrderCreated", "Order", "order-1");
+        event.setEventId(UUID.randomUUID());
+        return event;
+    }
+}
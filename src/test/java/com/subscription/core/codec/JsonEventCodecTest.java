@@ -0,0 +1,69 @@
+package com.subscription.core.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.subscription.core.entity.BusinessEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The stored payload is embedded with writeRawValue, so the envelope is decoded here with a
+ * stock JSON mapper to prove it is one well-formed object.
+ */
+class JsonEventCodecTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().findAndAddModules().build();
+    private final JsonEventCodec codec = new JsonEventCodec(jsonMapper);
+
+    @Test
+    void writePayloadStoresTextPayloadAndContentType() throws IOException {
+        BusinessEvent event = newEvent();
+
+        codec.writePayload(event, Map.of("orderId", "order-1"));
+
+        assertThat(event.getContentType()).isEqualTo(MimeTypeUtils.APPLICATION_JSON_VALUE);
+        assertThat(event.getPayloadBytes()).isNull();
+        assertThat(jsonMapper.readTree(event.getPayload()).get("orderId").asText()).isEqualTo("order-1");
+    }
+
+    @Test
+    void envelopeRoundTripsThroughStockJsonMapper() throws IOException {
+        BusinessEvent event = newEvent();
+        codec.writePayload(event, Map.of(
+                "orderId", "order-1",
+                "note", "say \"hi\" ü",
+                "productIds", List.of("p1", "p2")));
+
+        byte[] value = codec.writeEnvelope(event, "ORDER_CREATED");
+
+        JsonNode envelope = jsonMapper.readerFor(JsonNode.class)
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS)
+                .readValue(value);
+        assertThat(envelope.size()).isEqualTo(6);
+        assertThat(envelope.get("eventId").asText()).isEqualTo(event.getEventId().toString());
+        assertThat(envelope.get("eventType").asText()).isEqualTo("ORDER_CREATED");
+        assertThat(envelope.get("aggregateType").asText()).isEqualTo("Order");
+        assertThat(envelope.get("aggregateId").asText()).isEqualTo("order-1");
+        assertThat(jsonMapper.treeToValue(envelope.get("timestamp"), Instant.class)).isEqualTo(event.getCreatedAt());
+
+        JsonNode payload = envelope.get("payload");
+        assertThat(payload.get("orderId").asText()).isEqualTo("order-1");
+        assertThat(payload.get("note").asText()).isEqualTo("say \"hi\" ü");
+        assertThat(payload.get("productIds")).extracting(JsonNode::asText).containsExactly("p1", "p2");
+    }
+
+    private BusinessEvent newEvent() {
+        BusinessEvent event = new BusinessEvent("OrderCreated", "Order", "order-1");
+        event.setEventId(UUID.randomUUID());
+        return event;
+    }
+}
@@ -0,0 +1,77 @@
+package com.subscription.core.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlotTimingWheelTest {
+
+    private final SlotTimingWheel wheel = new SlotTimingWheel();
+
+    @Test
+    void firesSlotsWhenTheirMinuteIsReached() {
+        wheel.schedule("breakfast", 6 * 60);
+        wheel.schedule("lunch", 11 * 60);
+
+        assertThat(wheel.advanceTo(6 * 60 - 1)).isEmpty();
+        assertThat(wheel.advanceTo(6 * 60)).containsExactly("breakfast");
+        assertThat(wheel.advanceTo(11 * 60)).containsExactly("lunch");
+    }
+
+    @Test
+    void missedTicksFireEverythingPassedInFireOrder() {
+        wheel.schedule("late", 20);
+        wheel.schedule("early", 10);
+
+        assertThat(wheel.advanceTo(30)).containsExactly("early", "late");
+    }
+
+    @Test
+    void firesEachSlotOnce() {
+        wheel.schedule("breakfast", 360);
+
+        assertThat(wheel.advanceTo(360)).containsExactly("breakfast");
+        assertThat(wheel.advanceTo(360)).isEmpty();
+        assertThat(wheel.advanceTo(400)).isEmpty();
+    }
+
+    @Test
+    void clampsMinutesOutsideTheDay() {
+        // A lead time larger than the slot's start minute lands before midnight
+        wheel.schedule("before-midnight", -30);
+        wheel.schedule("after-midnight", SlotTimingWheel.MINUTES_PER_DAY + 30);
+
+        assertThat(wheel.advanceTo(0)).containsExactly("before-midnight");
+        assertThat(wheel.advanceTo(SlotTimingWheel.MINUTES_PER_DAY - 2)).isEmpty();
+        assertThat(wheel.advanceTo(SlotTimingWheel.MINUTES_PER_DAY - 1)).containsExactly("after-midnight");
+    }
+
+    @Test
+    void slotScheduledIntoAPassedMinuteFiresOnTheNextAdvance() {
+        wheel.advanceTo(100);
+
+        wheel.schedule("late-addition", 50);
+
+        assertThat(wheel.advanceTo(100)).isEmpty();
+        assertThat(wheel.advanceTo(101)).containsExactly("late-addition");
+    }
+
+    @Test
+    void isExhaustedOnlyAfterTheLastMinute() {
+        assertThat(wheel.isExhausted()).isFalse();
+
+        wheel.advanceTo(SlotTimingWheel.MINUTES_PER_DAY - 2);
+        assertThat(wheel.isExhausted()).isFalse();
+
+        wheel.advanceTo(SlotTimingWheel.MINUTES_PER_DAY - 1);
+        assertThat(wheel.isExhausted()).isTrue();
+    }
+
+    @Test
+    void advancingPastTheEndOfTheDayDrainsTheRest() {
+        wheel.schedule("evening", 20 * 60);
+
+        assertThat(wheel.advanceTo(SlotTimingWheel.MINUTES_PER_DAY + 60)).containsExactly("evening");
+        assertThat(wheel.isExhausted()).isTrue();
+    }
+}
@@ -0,0 +1,88 @@
+package com.subscription.core.util;
+
+import com.subscription.core.enums.SubscriptionFrequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeliveryScheduleUtilTest {
+
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+
+    @Test
+    void dailyCatchUpListsEveryMissedDayUpToTheCutoff() {
+        List<ZonedDateTime> occurrences = DeliveryScheduleUtil.occurrencesUntil(
+                at(2025, 3, 1), SubscriptionFrequency.DAILY, endOfDay(2025, 3, 4));
+
+        assertThat(occurrences).containsExactly(at(2025, 3, 1), at(2025, 3, 2), at(2025, 3, 3), at(2025, 3, 4));
+    }
+
+    @Test
+    void weeklyCatchUpSpansSeveralPeriodsAndTheNextDateFollowsTheCutoff() {
+        List<ZonedDateTime> occurrences = DeliveryScheduleUtil.occurrencesUntil(
+                at(2025, 2, 3), SubscriptionFrequency.WEEKLY, endOfDay(2025, 3, 5));
+
+        assertThat(occurrences).containsExactly(
+                at(2025, 2, 3), at(2025, 2, 10), at(2025, 2, 17), at(2025, 2, 24), at(2025, 3, 3));
+        assertThat(DeliveryScheduleUtil.nextDeliveryDate(occurrences.getLast(), SubscriptionFrequency.WEEKLY))
+                .isEqualTo(at(2025, 3, 10))
+                .isAfter(endOfDay(2025, 3, 5));
+    }
+
+    @Test
+    void monthlyCatchUpFromMonthEndStepsLikeTheNightlyAdvance() {
+        // Each step adds one month to the previous occurrence, as advanceDueChunk does with
+        // INTERVAL '1 month', so a date clamped to a short month stays on the clamped day
+        List<ZonedDateTime> occurrences = DeliveryScheduleUtil.occurrencesUntil(
+                at(2025, 1, 31), SubscriptionFrequency.MONTHLY, endOfDay(2025, 4, 30));
+
+        assertThat(occurrences).containsExactly(at(2025, 1, 31), at(2025, 2, 28), at(2025, 3, 28), at(2025, 4, 28));
+    }
+
+    @Test
+    void monthlyCatchUpFromMonthEndClampsToLeapDay() {
+        List<ZonedDateTime> occurrences = DeliveryScheduleUtil.occurrencesUntil(
+                at(2024, 1, 31), SubscriptionFrequency.MONTHLY, endOfDay(2024, 3, 31));
+
+        assertThat(occurrences).containsExactly(at(2024, 1, 31), at(2024, 2, 29), at(2024, 3, 29));
+    }
+
+    @Test
+    void cutoffIsInclusive() {
+        ZonedDateTime date = at(2025, 3, 1);
+
+        assertThat(DeliveryScheduleUtil.occurrencesUntil(date, SubscriptionFrequency.DAILY, date))
+                .containsExactly(date);
+    }
+
+    @Test
+    void firstDateAfterCutoffYieldsNoOccurrences() {
+        assertThat(DeliveryScheduleUtil.occurrencesUntil(
+                at(2025, 3, 2), SubscriptionFrequency.DAILY, endOfDay(2025, 3, 1))).isEmpty();
+    }
+
+    @Test
+    void occurrencesKeepTheLocalTimeAcrossDaylightSavingChanges() {
+        ZoneId berlin = ZoneId.of("Europe/Berlin");
+        ZonedDateTime first = ZonedDateTime.of(2025, 3, 29, 6, 0, 0, 0, berlin);
+
+        List<ZonedDateTime> occurrences = DeliveryScheduleUtil.occurrencesUntil(
+                first, SubscriptionFrequency.DAILY, ZonedDateTime.of(2025, 3, 31, 23, 0, 0, 0, berlin));
+
+        assertThat(occurrences).hasSize(3).allSatisfy(date -> assertThat(date.getHour()).isEqualTo(6));
+    }
+
+    private static ZonedDateTime at(int year, int month, int day) {
+        return ZonedDateTime.of(year, month, day, 6, 0, 0, 0, ZONE);
+    }
+
+    private static ZonedDateTime endOfDay(int year, int month, int day) {
+        return LocalDate.of(year, month, day).atTime(LocalTime.MAX).atZone(ZONE);
+    }
+}